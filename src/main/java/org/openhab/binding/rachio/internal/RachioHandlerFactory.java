@@ -4,6 +4,7 @@ import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.RachioHttp;
 import org.openhab.binding.rachio.internal.handler.RachioBridgeHandler;
 import org.openhab.binding.rachio.internal.handler.RachioDeviceHandler;
 import org.openhab.binding.rachio.internal.handler.RachioZoneHandler;
@@ -16,6 +17,7 @@ import org.openhab.core.thing.binding.ThingHandlerFactory;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,8 +38,11 @@ public class RachioHandlerFactory extends BaseThingHandlerFactory {
     
     private final Logger logger = LoggerFactory.getLogger(RachioHandlerFactory.class);
 
+    private final RachioHttp rachioHttp;
+
     @Activate
-    public void activate() {
+    public RachioHandlerFactory(@Reference RachioHttp rachioHttp) {
+        this.rachioHttp = rachioHttp;
         logger.debug("RachioHandlerFactory activated");
     }
 
@@ -56,7 +61,7 @@ public class RachioHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (THING_TYPE_BRIDGE.equals(thingTypeUID)) {
-            return new RachioBridgeHandler((Bridge) thing);
+            return new RachioBridgeHandler((Bridge) thing, rachioHttp);
         } else if (THING_TYPE_DEVICE.equals(thingTypeUID)) {
             return new RachioDeviceHandler(thing);
         } else if (THING_TYPE_ZONE.equals(thingTypeUID)) {
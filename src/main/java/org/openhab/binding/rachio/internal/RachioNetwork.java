@@ -7,7 +7,6 @@ import org.openhab.binding.rachio.internal.api.RachioHttp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
 /**
@@ -20,7 +19,6 @@ public class RachioNetwork {
     private final Logger logger = LoggerFactory.getLogger(RachioNetwork.class);
 
     private final RachioHttp http;
-    private final Gson gson = new Gson();
 
     public RachioNetwork(RachioHttp http) {
         this.http = http;
@@ -0,0 +1,182 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioCircuitBreaker} protects one endpoint family of one API key. It opens when the failure
+ * rate over the last calls exceeds a threshold, rejects calls while open, and after the open period lets
+ * exactly one probe through (half-open) whose outcome decides whether it closes or opens again.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioCircuitBreaker {
+    private final Logger logger = LoggerFactory.getLogger(RachioCircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+
+    // Sliding window over the outcomes of the last calls, true = failure
+    private final boolean[] window;
+    private int windowPosition = 0;
+    private int windowCount = 0;
+    private int windowFailures = 0;
+
+    private State state = State.CLOSED;
+    private Instant openedAt = Instant.EPOCH;
+    private boolean probeInFlight = false;
+
+    private long successCount = 0;
+    private long failureCount = 0;
+    private long rejectedCount = 0;
+    private long openedCount = 0;
+
+    /**
+     * @param name name used in log messages
+     * @param windowSize number of recent calls the failure rate is computed over
+     * @param minimumCalls calls required in the window before the breaker may open
+     * @param failureRateThreshold failure rate (0..1) at which the breaker opens
+     * @param openDuration time to reject calls before letting a probe through
+     */
+    public RachioCircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+            Duration openDuration) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Ask to make a call. Every granted call must be followed by {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (Duration.between(openedAt, Instant.now()).compareTo(openDuration) >= 0) {
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    logger.debug("Circuit breaker {} half-open, sending probe", name);
+                    return true;
+                }
+                break;
+            case HALF_OPEN:
+                if (!probeInFlight) {
+                    probeInFlight = true;
+                    return true;
+                }
+                break;
+        }
+        rejectedCount++;
+        return false;
+    }
+
+    /**
+     * Give back a permission that did not result in a call, so a half-open breaker can probe again
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        successCount++;
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            state = State.CLOSED;
+            resetWindow();
+            logger.info("Circuit breaker {} closed, probe succeeded", name);
+        } else {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        failureCount++;
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            open("probe failed");
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumCalls && getFailureRate() >= failureRateThreshold) {
+                open(String.format("failure rate %.0f%%", getFailureRate() * 100));
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0 : (double) windowFailures / windowCount;
+    }
+
+    public synchronized long getSuccessCount() {
+        return successCount;
+    }
+
+    public synchronized long getFailureCount() {
+        return failureCount;
+    }
+
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public synchronized long getOpenedCount() {
+        return openedCount;
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = Instant.now();
+        openedCount++;
+        logger.warn("Circuit breaker {} opened ({}), rejecting calls for {} seconds", name, reason,
+                openDuration.getSeconds());
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void resetWindow() {
+        windowPosition = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RachioCircuitBreaker{" + "name='" + name + '\'' + ", state=" + state + ", failureRate="
+                + String.format("%.2f", getFailureRate()) + ", successes=" + successCount + ", failures="
+                + failureCount + ", rejected=" + rejectedCount + ", opened=" + openedCount + '}';
+    }
+}
@@ -0,0 +1,18 @@
+package org.openhab.binding.rachio.internal.api;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
+
+/**
+ * Thrown without contacting the API while the circuit breaker for an endpoint is open
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioCircuitOpenException extends RachioException {
+    private static final long serialVersionUID = 1L;
+
+    public RachioCircuitOpenException(String message) {
+        super(message);
+    }
+}
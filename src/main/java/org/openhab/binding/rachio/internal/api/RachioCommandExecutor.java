@@ -0,0 +1,89 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioCommandExecutor} runs user commands on threads of their own, so a command never waits
+ * behind a poll that is blocked on the rate limiter or a slow API, nor on the openHAB thread that sent it.
+ * Its threads run at a higher priority than the shared thing handler pool the polls use.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioCommandExecutor {
+    private final Logger logger = LoggerFactory.getLogger(RachioCommandExecutor.class);
+
+    /**
+     * A command sent to the API
+     */
+    @FunctionalInterface
+    public interface Command {
+        void execute() throws RachioException;
+    }
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * @param threads number of commands that may run at the same time
+     */
+    public RachioCommandExecutor(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "OH-binding-rachio-command-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY + 2);
+            return thread;
+        });
+    }
+
+    /**
+     * Run a command as soon as a command thread is free
+     *
+     * @param description what the command does, for logging
+     * @return completes when the command was sent, or exceptionally with the {@link RachioException}
+     */
+    public CompletableFuture<@Nullable Void> submit(String description, Command command) {
+        CompletableFuture<@Nullable Void> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> run(description, command, result));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(new RachioException("Command executor is shut down", e));
+        }
+        return result;
+    }
+
+    /**
+     * Run a task on a command thread after a delay
+     */
+    public ScheduledFuture<?> schedule(Runnable task, Duration delay) {
+        return executor.schedule(task, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(String description, Command command, CompletableFuture<@Nullable Void> result) {
+        long start = System.nanoTime();
+        try {
+            command.execute();
+            logger.debug("Command '{}' sent in {} ms", description,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            result.complete(null);
+        } catch (RachioException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
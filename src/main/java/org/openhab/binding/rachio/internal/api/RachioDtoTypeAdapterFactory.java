@@ -0,0 +1,496 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioDevice;
+import org.openhab.binding.rachio.internal.api.dto.RachioEventSummary;
+import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The {@link RachioDtoTypeAdapterFactory} provides hand-written streaming readers for the DTOs parsed on
+ * every poll (person, device and event summary), so they are filled straight from the response stream
+ * without going through Gson's reflective field binding. Unknown fields are skipped; writing is delegated
+ * to the default adapter. Lists are read-only, as parsed DTOs may be shared through the response cache.
+ * Malformed numbers are reported as {@link JsonSyntaxException}, like any other
+ * malformed input.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioDtoTypeAdapterFactory implements TypeAdapterFactory {
+
+    @FunctionalInterface
+    private interface DtoReader<T> {
+        T read(JsonReader in) throws IOException;
+    }
+
+    private static final Map<Class<?>, DtoReader<?>> READERS = Map.of(
+            RachioPerson.class, RachioDtoTypeAdapterFactory::readPerson,
+            RachioDevice.class, RachioDtoTypeAdapterFactory::readDevice,
+            RachioEventSummary.class, RachioDtoTypeAdapterFactory::readEventSummary);
+
+    @Override
+    public <T> @Nullable TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        DtoReader<?> reader = READERS.get(type.getRawType());
+        if (reader == null) {
+            return null;
+        }
+
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        @SuppressWarnings("unchecked")
+        DtoReader<T> typedReader = (DtoReader<T>) reader;
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, @Nullable T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public @Nullable T read(JsonReader in) throws IOException {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return null;
+                }
+                return typedReader.read(in);
+            }
+        };
+    }
+
+    // ========== PERSON ==========
+
+    private static RachioPerson readPerson(JsonReader in) throws IOException {
+        RachioPerson person = new RachioPerson();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    person.id = nextString(in, person.id);
+                    break;
+                case "username":
+                    person.username = nextString(in, person.username);
+                    break;
+                case "fullName":
+                    person.fullName = nextString(in, person.fullName);
+                    break;
+                case "email":
+                    person.email = nextString(in, person.email);
+                    break;
+                case "devices":
+                    person.devices = readList(in, RachioDtoTypeAdapterFactory::readPersonDevice);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return person;
+    }
+
+    private static RachioPerson.Device readPersonDevice(JsonReader in) throws IOException {
+        RachioPerson.Device device = new RachioPerson.Device();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    device.id = nextString(in, device.id);
+                    break;
+                case "name":
+                    device.name = nextString(in, device.name);
+                    break;
+                case "status":
+                    device.status = nextString(in, device.status);
+                    break;
+                case "serialNumber":
+                    device.serialNumber = nextString(in, device.serialNumber);
+                    break;
+                case "model":
+                    device.model = nextString(in, device.model);
+                    break;
+                case "latitude":
+                    device.latitude = nextDouble(in);
+                    break;
+                case "longitude":
+                    device.longitude = nextDouble(in);
+                    break;
+                case "timeZone":
+                    device.timeZone = nextString(in, device.timeZone);
+                    break;
+                case "on":
+                    device.on = nextBoolean(in);
+                    break;
+                case "zones":
+                    device.zones = readList(in, RachioDtoTypeAdapterFactory::readPersonZone);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return device;
+    }
+
+    private static RachioPerson.Zone readPersonZone(JsonReader in) throws IOException {
+        RachioPerson.Zone zone = new RachioPerson.Zone();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    zone.id = nextString(in, zone.id);
+                    break;
+                case "name":
+                    zone.name = nextString(in, zone.name);
+                    break;
+                case "zoneNumber":
+                    zone.zoneNumber = nextInt(in);
+                    break;
+                case "enabled":
+                    zone.enabled = nextBoolean(in);
+                    break;
+                case "runtime":
+                    zone.runtime = nextInt(in);
+                    break;
+                case "maxRuntime":
+                    zone.maxRuntime = nextInt(in);
+                    break;
+                case "imageUrl":
+                    zone.imageUrl = nextString(in, zone.imageUrl);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return zone;
+    }
+
+    // ========== DEVICE ==========
+
+    private static RachioDevice readDevice(JsonReader in) throws IOException {
+        RachioDevice device = new RachioDevice();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    device.id = nextString(in, device.id);
+                    break;
+                case "status":
+                    device.status = nextString(in, device.status);
+                    break;
+                case "name":
+                    device.name = nextString(in, device.name);
+                    break;
+                case "serialNumber":
+                    device.serialNumber = nextString(in, device.serialNumber);
+                    break;
+                case "model":
+                    device.model = nextString(in, device.model);
+                    break;
+                case "latitude":
+                    device.latitude = nextDouble(in);
+                    break;
+                case "longitude":
+                    device.longitude = nextDouble(in);
+                    break;
+                case "timeZone":
+                    device.timeZone = nextString(in, device.timeZone);
+                    break;
+                case "on":
+                    device.on = nextBoolean(in);
+                    break;
+                case "deleted":
+                    device.deleted = nextBoolean(in);
+                    break;
+                case "zones":
+                    device.zones = readList(in, RachioDtoTypeAdapterFactory::readDeviceZone);
+                    break;
+                case "currentSchedule":
+                    device.currentSchedule = readObject(in, RachioDtoTypeAdapterFactory::readScheduleRule);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return device;
+    }
+
+    private static RachioDevice.Zone readDeviceZone(JsonReader in) throws IOException {
+        RachioDevice.Zone zone = new RachioDevice.Zone();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    zone.id = nextString(in, zone.id);
+                    break;
+                case "name":
+                    zone.name = nextString(in, zone.name);
+                    break;
+                case "zoneNumber":
+                    zone.zoneNumber = nextInt(in);
+                    break;
+                case "enabled":
+                    zone.enabled = nextBoolean(in);
+                    break;
+                case "runtime":
+                    zone.runtime = nextInt(in);
+                    break;
+                case "maxRuntime":
+                    zone.maxRuntime = nextInt(in);
+                    break;
+                case "imageUrl":
+                    zone.imageUrl = nextString(in, zone.imageUrl);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return zone;
+    }
+
+    private static RachioDevice.ScheduleRule readScheduleRule(JsonReader in) throws IOException {
+        RachioDevice.ScheduleRule rule = new RachioDevice.ScheduleRule();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    rule.id = nextString(in, rule.id);
+                    break;
+                case "name":
+                    rule.name = nextString(in, rule.name);
+                    break;
+                case "startDate":
+                    rule.startDate = nextString(in, rule.startDate);
+                    break;
+                case "totalDuration":
+                    rule.totalDuration = nextInt(in);
+                    break;
+                case "status":
+                    rule.status = nextString(in, rule.status);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return rule;
+    }
+
+    // ========== EVENT SUMMARY ==========
+
+    private static RachioEventSummary readEventSummary(JsonReader in) throws IOException {
+        RachioEventSummary summary = new RachioEventSummary();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "deviceId":
+                    summary.deviceId = nextString(in, summary.deviceId);
+                    break;
+                case "status":
+                    summary.status = nextString(in, summary.status);
+                    break;
+                case "zoneData":
+                    summary.zoneData = readList(in, RachioDtoTypeAdapterFactory::readZoneSummary);
+                    break;
+                case "events":
+                    summary.events = readList(in, RachioDtoTypeAdapterFactory::readEvent);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return summary;
+    }
+
+    private static RachioEventSummary.ZoneSummary readZoneSummary(JsonReader in) throws IOException {
+        RachioEventSummary.ZoneSummary zone = new RachioEventSummary.ZoneSummary();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "zoneId":
+                    zone.zoneId = nextString(in, zone.zoneId);
+                    break;
+                case "name":
+                    zone.name = nextString(in, zone.name);
+                    break;
+                case "enabled":
+                    zone.enabled = nextBoolean(in);
+                    break;
+                case "runtime":
+                    zone.runtime = nextInt(in);
+                    break;
+                case "imageUrl":
+                    zone.imageUrl = nextString(in, zone.imageUrl);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return zone;
+    }
+
+    private static RachioEventSummary.Event readEvent(JsonReader in) throws IOException {
+        RachioEventSummary.Event event = new RachioEventSummary.Event();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    event.id = nextString(in, event.id);
+                    break;
+                case "type":
+                    event.type = nextString(in, event.type);
+                    break;
+                case "timestamp":
+                    event.timestamp = nextString(in, event.timestamp);
+                    break;
+                case "summary":
+                    event.summary = nextString(in, event.summary);
+                    break;
+                case "device":
+                    event.device = readObject(in, RachioDtoTypeAdapterFactory::readEventDevice);
+                    break;
+                case "zone":
+                    event.zone = readObject(in, RachioDtoTypeAdapterFactory::readEventZone);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return event;
+    }
+
+    private static RachioEventSummary.EventDevice readEventDevice(JsonReader in) throws IOException {
+        RachioEventSummary.EventDevice device = new RachioEventSummary.EventDevice();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    device.id = nextString(in, device.id);
+                    break;
+                case "name":
+                    device.name = nextString(in, device.name);
+                    break;
+                case "on":
+                    device.on = nextBoolean(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return device;
+    }
+
+    private static RachioEventSummary.EventZone readEventZone(JsonReader in) throws IOException {
+        RachioEventSummary.EventZone zone = new RachioEventSummary.EventZone();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    zone.id = nextString(in, zone.id);
+                    break;
+                case "name":
+                    zone.name = nextString(in, zone.name);
+                    break;
+                case "zoneNumber":
+                    zone.zoneNumber = nextInt(in);
+                    break;
+                case "duration":
+                    zone.duration = nextInt(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return zone;
+    }
+
+    // ========== PRIMITIVES ==========
+
+    private static <T> @Nullable List<T> readList(JsonReader in, DtoReader<T> reader) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            @Nullable T element = readObject(in, reader);
+            if (element != null) {
+                list.add(element);
+            }
+        }
+        in.endArray();
+        return Collections.unmodifiableList(list);
+    }
+
+    private static <T> @Nullable T readObject(JsonReader in, DtoReader<T> reader) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return reader.read(in);
+    }
+
+    private static String nextString(JsonReader in, String fallback) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return fallback;
+        }
+        return in.nextString();
+    }
+
+    private static int nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Expected an integer at " + in.getPath(), e);
+        }
+    }
+
+    private static double nextDouble(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        try {
+            return in.nextDouble();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Expected a number at " + in.getPath(), e);
+        }
+    }
+
+    private static boolean nextBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return false;
+        } else if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+}
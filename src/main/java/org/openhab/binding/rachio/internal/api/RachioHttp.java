@@ -1,20 +1,35 @@
 package org.openhab.binding.rachio.internal.api;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.RachioRateLimiter.Lane;
 import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
 import org.openhab.binding.rachio.internal.api.dto.RachioDevice;
 import org.openhab.binding.rachio.internal.api.dto.RachioZone;
@@ -24,12 +39,12 @@ import org.openhab.binding.rachio.internal.api.dto.RachioException;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
 
 /**
  * Professional-grade HTTP client for Rachio API with rate limiting, retry logic, and error handling
@@ -39,50 +54,75 @@ import com.google.gson.JsonSyntaxException;
 public class RachioHttp {
     private final Logger logger = LoggerFactory.getLogger(RachioHttp.class);
     
-    // JSON parser with proper configuration
-    private final Gson gson = new GsonBuilder()
-            .setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
-            .create();
+    // Shared JSON parser from the RachioJson service
+    private final Gson gson;
+
+    // Longest zone run the API accepts, in seconds
+    public static final int MAX_ZONE_DURATION = 3600;
     
     // API configuration
     private static final String BASE_URL = "https://api.rach.io/1/public";
     private static final int MAX_RETRIES = 3;
     private static final long RETRY_DELAY_MS = 1000;
+    private static final double RETRY_RATIO = 0.2; // At most one retry per five requests and API key
+    private static final double RETRY_BURST = 10;
     private static final int REQUEST_TIMEOUT_MS = 30000;
+    private static final String USER_AGENT = "openHAB-Rachio-Binding/5.0.1";
+
+    // Shared client: keeps the TLS connection to the API alive and multiplexes requests over HTTP/2
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(REQUEST_TIMEOUT_MS))
+            .build();
     
-    // Rate limiting - Rachio allows 1700 requests per hour
+    // Rate limiting - Rachio allows 1700 requests per hour and API key
     private static final int RATE_LIMIT_REQUESTS = 1500; // Conservative limit
     private static final Duration RATE_LIMIT_PERIOD = Duration.ofHours(1);
-    private final AtomicInteger requestCount = new AtomicInteger(0);
-    private Instant rateLimitWindowStart = Instant.now();
-    private final Object rateLimitLock = new Object();
+    private static final int COMMAND_RESERVE = 100; // Tokens polling may never consume
+    private static final Duration COMMAND_MAX_WAIT = Duration.ofSeconds(5);
+    private static final Duration POLL_MAX_WAIT = Duration.ofSeconds(30);
+    private static final String HEADER_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    private static final String HEADER_RATE_LIMIT_RESET = "X-RateLimit-Reset";
+    private final RachioRateLimiter rateLimiter = new RachioRateLimiter(RATE_LIMIT_REQUESTS, RATE_LIMIT_PERIOD,
+            COMMAND_RESERVE);
+
+    private final RachioRetryBudget retryBudget = new RachioRetryBudget(RETRY_RATIO, RETRY_BURST);
     
     // API key management
     private final Map<String, String> thingApiKeys = new ConcurrentHashMap<>();
     
-    // Circuit breaker state
-    private volatile boolean circuitOpen = false;
-    private volatile Instant circuitOpenedAt;
+    // Circuit breakers per API key and endpoint family (person, device, zone, image, ...)
     private static final Duration CIRCUIT_TIMEOUT = Duration.ofMinutes(1);
+    private static final int CIRCUIT_WINDOW_SIZE = 20;
+    private static final int CIRCUIT_MINIMUM_CALLS = 5;
+    private static final double CIRCUIT_FAILURE_RATE = 0.5;
+    private final Map<String, Map<String, RachioCircuitBreaker>> circuitBreakers = new ConcurrentHashMap<>();
+
+    // Validators and parsed bodies of polled resources, for conditional requests
+    private static final int RESPONSE_CACHE_SIZE = 128;
+    private static final int CACHE_STATS_INTERVAL = 100;
+    private final RachioResponseCache responseCache = new RachioResponseCache(RESPONSE_CACHE_SIZE);
     
-    // Executor for background tasks
+    // Executor for delayed retries
     private final ScheduledExecutorService scheduler;
-    private @Nullable ScheduledFuture<?> cleanupTask;
+
+    // Commands run apart from polling and give up quickly, a late "stop watering" is of no use
+    private static final int COMMAND_THREADS = 2;
+    private static final Duration COMMAND_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration COMMAND_DEADLINE = Duration.ofSeconds(15);
+    private final RachioCommandExecutor commandExecutor = new RachioCommandExecutor(COMMAND_THREADS);
 
     @Activate
-    public RachioHttp() {
-        this.scheduler = java.util.concurrent.Executors.newScheduledThreadPool(1);
-        startCleanupTask();
+    public RachioHttp(@Reference RachioJson json) {
+        this.gson = json.getGson();
+        this.scheduler = java.util.concurrent.Executors.newScheduledThreadPool(2);
         logger.info("RachioHttp service activated");
     }
 
     @Deactivate
     public void deactivate() {
-        ScheduledFuture<?> task = cleanupTask;
-        if (task != null) {
-            task.cancel(true);
-        }
         scheduler.shutdown();
+        commandExecutor.shutdown();
         logger.info("RachioHttp service deactivated");
     }
 
@@ -102,11 +142,81 @@ public class RachioHttp {
         logger.debug("Registered API key for thing: {}", thingId);
     }
 
+    /**
+     * Get the number of requests left in the rate limit bucket of a thing's API key
+     */
+    public int getAvailableRequests(String thingId) {
+        String apiKey = thingApiKeys.get(thingId);
+        return apiKey != null ? rateLimiter.getAvailableTokens(apiKey) : 0;
+    }
+
+    /**
+     * Get the delay until the next polling cycle. Stays at the configured interval while the quota is
+     * healthy and stretches it so that the remaining polling budget lasts until the quota resets. Without a
+     * reset time from the API, polls are paced by how fast the local bucket refills.
+     *
+     * @param baseIntervalSeconds configured polling interval
+     * @param requestsPerCycle number of API calls one polling cycle makes
+     */
+    public long getAdaptivePollingInterval(String thingId, long baseIntervalSeconds, int requestsPerCycle) {
+        String apiKey = thingApiKeys.get(thingId);
+        if (apiKey == null) {
+            return baseIntervalSeconds;
+        }
+
+        Instant resetAt = rateLimiter.getResetTime(apiKey);
+        long secondsToReset = resetAt != null ? Duration.between(Instant.now(), resetAt).getSeconds() : 0;
+        if (secondsToReset <= 0) {
+            // Unknown or already passed, wait until the bucket holds the tokens of a whole cycle
+            long waitNanos = rateLimiter.getWaitNanos(apiKey, Lane.POLL, requestsPerCycle);
+            return Math.max(baseIntervalSeconds, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+                    / TimeUnit.SECONDS.toNanos(1));
+        }
+
+        int pollBudget = rateLimiter.getAvailableTokens(apiKey) - rateLimiter.getCommandReserve();
+        if (pollBudget < requestsPerCycle) {
+            // Nothing left for polling, wait for the quota to reset
+            return Math.max(baseIntervalSeconds, secondsToReset);
+        }
+
+        long cyclesLeft = pollBudget / Math.max(1, requestsPerCycle);
+        return Math.max(baseIntervalSeconds, secondsToReset / cyclesLeft);
+    }
+
+    /**
+     * Get the circuit breakers of a thing's API key by endpoint family, for status reporting
+     */
+    public Map<String, RachioCircuitBreaker> getCircuitBreakers(String thingId) {
+        String apiKey = thingApiKeys.get(thingId);
+        Map<String, RachioCircuitBreaker> breakers = apiKey != null ? circuitBreakers.get(apiKey) : null;
+        return breakers != null ? Map.copyOf(breakers) : Map.of();
+    }
+
+    /**
+     * Get the share of conditional requests the API answered with 304 Not Modified
+     */
+    public double getResponseCacheHitRatio() {
+        return responseCache.getHitRatio();
+    }
+
+    /**
+     * Get the executor commands are sent on, apart from polling
+     */
+    public RachioCommandExecutor getCommandExecutor() {
+        return commandExecutor;
+    }
+
     /**
      * Unregister API key for a thing
      */
     public void unregisterThing(String thingId) {
-        thingApiKeys.remove(thingId);
+        String apiKey = thingApiKeys.remove(thingId);
+        if (apiKey != null && !thingApiKeys.containsValue(apiKey)) {
+            rateLimiter.remove(apiKey);
+            retryBudget.remove(apiKey);
+            circuitBreakers.remove(apiKey);
+            responseCache.remove(apiKey);
+        }
         logger.debug("Unregistered API key for thing: {}", thingId);
     }
 
@@ -131,24 +241,83 @@ public class RachioHttp {
         return executeWithRetry(thingId, "/device/" + deviceId + "/event", RachioEventSummary.class);
     }
 
+    /**
+     * Get person information without blocking the caller
+     */
+    public CompletableFuture<@Nullable RachioPerson> getPersonAsync(String thingId) {
+        return executeWithRetryAsync(thingId, "/person/info", "GET", null, Lane.POLL, RachioPerson.class);
+    }
+
+    /**
+     * Get device details without blocking the caller
+     */
+    public CompletableFuture<@Nullable RachioDevice> getDeviceAsync(String thingId, String deviceId) {
+        return executeWithRetryAsync(thingId, "/device/" + deviceId, "GET", null, Lane.POLL, RachioDevice.class);
+    }
+
+    /**
+     * Get device event summary without blocking the caller
+     */
+    public CompletableFuture<@Nullable RachioEventSummary> getDeviceEventSummaryAsync(String thingId,
+            String deviceId) {
+        return executeWithRetryAsync(thingId, "/device/" + deviceId + "/event", "GET", null, Lane.POLL,
+                RachioEventSummary.class);
+    }
+
+    /**
+     * Get device event summary with only the events between startTime and endTime (epoch milliseconds),
+     * without blocking the caller
+     */
+    public CompletableFuture<@Nullable RachioEventSummary> getDeviceEventSummaryAsync(String thingId,
+            String deviceId, long startTime, long endTime) {
+        return executeWithRetryAsync(thingId,
+                "/device/" + deviceId + "/event?startTime=" + startTime + "&endTime=" + endTime, "GET", null,
+                Lane.POLL, RachioEventSummary.class);
+    }
+
     /**
      * Start a zone
      */
     public void startZone(String thingId, String zoneId, int durationSeconds) throws RachioException {
-        if (durationSeconds <= 0 || durationSeconds > 3600) {
+        if (durationSeconds <= 0 || durationSeconds > MAX_ZONE_DURATION) {
             throw new IllegalArgumentException("Duration must be between 1 and 3600 seconds");
         }
         
         String payload = String.format("{\"id\":\"%s\",\"duration\":%d}", zoneId, durationSeconds);
-        executeWithRetry(thingId, "/zone/start", "PUT", payload, Object.class);
+        executeCommand(thingId, "/zone/start", payload, false);
         logger.debug("Started zone {} for {} seconds", zoneId, durationSeconds);
     }
 
+    /**
+     * Start several zones of one controller with a single request, they run one after another in the
+     * iteration order of the map
+     *
+     * @param zoneDurations run time in seconds by zone id
+     */
+    public void startZones(String thingId, Map<String, Integer> zoneDurations) throws RachioException {
+        StringBuilder payload = new StringBuilder("{\"zones\":[");
+        int sortOrder = 1;
+        for (Map.Entry<String, Integer> zone : zoneDurations.entrySet()) {
+            int durationSeconds = zone.getValue();
+            if (durationSeconds <= 0 || durationSeconds > MAX_ZONE_DURATION) {
+                throw new IllegalArgumentException("Duration must be between 1 and 3600 seconds");
+            }
+            if (sortOrder > 1) {
+                payload.append(',');
+            }
+            payload.append(String.format("{\"id\":\"%s\",\"duration\":%d,\"sortOrder\":%d}", zone.getKey(),
+                    durationSeconds, sortOrder++));
+        }
+        payload.append("]}");
+        executeCommand(thingId, "/zone/start_multiple", payload.toString(), false);
+        logger.debug("Started zones {}", zoneDurations);
+    }
+
     /**
      * Stop watering
      */
     public void stopWatering(String thingId, String deviceId) throws RachioException {
-        executeWithRetry(thingId, "/device/" + deviceId + "/stop", "PUT", "{}", Object.class);
+        executeCommand(thingId, "/device/" + deviceId + "/stop", "{}", true);
         logger.debug("Stopped watering for device {}", deviceId);
     }
 
@@ -157,201 +326,518 @@ public class RachioHttp {
      */
     public void setZoneEnabled(String thingId, String zoneId, boolean enabled) throws RachioException {
         String payload = String.format("{\"id\":\"%s\",\"enabled\":%s}", zoneId, enabled);
-        executeWithRetry(thingId, "/zone/enable", "PUT", payload, Object.class);
+        executeCommand(thingId, "/zone/enable", payload, true);
         logger.debug("Set zone {} enabled: {}", zoneId, enabled);
     }
 
     /**
-     * Get image data (for image servlet)
+     * Get image data (for image servlet). The body is streamed into the target file rather than buffered.
+     * If a previously fetched copy is passed, it is revalidated with its ETag and returned as is when the
+     * API answers 304 Not Modified.
      */
-    public byte @Nullable [] getImage(String thingId, String imageId) throws RachioException {
-        HttpURLConnection connection = null;
+    public @Nullable RachioImage getImage(String thingId, String imageId, @Nullable RachioImage cached,
+            Path target) throws RachioException {
+        String apiKey = getApiKey(thingId);
+        String endpoint = "/image/" + imageId;
+        RachioCircuitBreaker breaker = await(acquireAsync(apiKey, endpoint, Lane.POLL));
+
+        HttpRequest request = buildRequest(apiKey, endpoint, "GET", null);
+        String cachedEtag = cached != null ? cached.getEtag() : null;
+        if (cachedEtag != null) {
+            request = HttpRequest.newBuilder(request, (name, value) -> true).header("If-None-Match", cachedEtag)
+                    .build();
+        }
+        // Only a new image goes to the file, error bodies are read as text
+        HttpResponse.BodyHandler<String> bodyHandler = info -> info.statusCode() == HttpURLConnection.HTTP_OK
+                ? HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofFile(target), Path::toString)
+                : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        HttpResponse<String> response;
         try {
-            checkRateLimit();
-            checkCircuitBreaker();
-            
-            String apiKey = getApiKey(thingId);
-            URL url = new URL(BASE_URL + "/image/" + imageId);
-            connection = (HttpURLConnection) url.openConnection();
-            configureConnection(connection, "GET", apiKey);
-            
-            int responseCode = connection.getResponseCode();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                try (var inputStream = connection.getInputStream()) {
-                    return inputStream.readAllBytes();
-                }
-            } else if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
-                return null;
-            } else {
-                handleErrorResponse(connection, responseCode);
-                return null;
-            }
-        } catch (Exception e) {
-            handleException(e);
-            throw new RachioException("Failed to fetch image: " + e.getMessage(), e);
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
+            response = await(httpClient.sendAsync(request, bodyHandler));
+        } catch (RachioException e) {
+            recordOutcome(breaker, e);
+            throw e;
+        }
+        updateRateLimit(apiKey, response);
+
+        int responseCode = response.statusCode();
+        recordStatus(breaker, responseCode);
+        if (responseCode == HttpURLConnection.HTTP_OK) {
+            long length;
+            try {
+                length = Files.size(target);
+            } catch (IOException e) {
+                throw new RachioException("Failed to store image " + imageId + ": " + e.getMessage(), e);
             }
+            return new RachioImage(target, length,
+                    response.headers().firstValue("Content-Type").orElse(RachioImage.DEFAULT_CONTENT_TYPE),
+                    response.headers().firstValue("ETag").orElse(null), System.currentTimeMillis(), null);
+        } else if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            return cached;
+        } else if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+            return null;
         }
+        handleErrorResponse(apiKey, responseCode, response.body());
+        return null;
     }
 
     // ========== PRIVATE IMPLEMENTATION ==========
 
     private <T> @Nullable T executeWithRetry(String thingId, String endpoint, Class<T> responseType) 
             throws RachioException {
-        return executeWithRetry(thingId, endpoint, "GET", null, responseType);
+        return executeWithRetry(thingId, endpoint, "GET", null, Lane.POLL, responseType);
     }
 
     private <T> @Nullable T executeWithRetry(String thingId, String endpoint, String method, 
-                                           @Nullable String payload, Class<T> responseType) 
+                                           @Nullable String payload, Lane lane, Class<T> responseType)
             throws RachioException {
-        RachioException lastException = null;
-        
-        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
-            try {
-                return executeRequest(thingId, endpoint, method, payload, responseType);
-            } catch (RachioException e) {
-                lastException = e;
-                
-                // Don't retry on client errors (4xx) except 429 (rate limit)
-                if (e.getStatusCode() != null && 
-                    e.getStatusCode() >= 400 && 
-                    e.getStatusCode() < 500 && 
-                    e.getStatusCode() != 429) {
-                    break;
+        return await(executeWithRetryAsync(thingId, endpoint, method, payload, lane, responseType));
+    }
+
+    /**
+     * Send a command and wait for it no longer than the command deadline. Only idempotent commands are
+     * retried: if the response to a zone start is lost, sending it again would restart the zone.
+     */
+    private void executeCommand(String thingId, String endpoint, String payload, boolean idempotent)
+            throws RachioException {
+        CompletableFuture<@Nullable Object> future = executeWithRetryAsync(thingId, endpoint, "PUT", payload,
+                Lane.COMMAND, Object.class, idempotent ? MAX_RETRIES : 1);
+        try {
+            future.get(COMMAND_DEADLINE.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Cancelling aborts the token wait, a scheduled retry or the exchange that is in flight
+            future.cancel(true);
+            throw new RachioException("Command " + endpoint + " not confirmed within " + COMMAND_DEADLINE.toSeconds()
+                    + " seconds", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RachioException("Request interrupted", e);
+        } catch (ExecutionException e) {
+            throw toRachioException(e.getCause());
+        }
+    }
+
+    /**
+     * Execute a request, retrying failures with exponential backoff. Retries are scheduled on a timer
+     * instead of sleeping, and are limited by the per-key retry budget.
+     */
+    private <T> CompletableFuture<@Nullable T> executeWithRetryAsync(String thingId, String endpoint, String method,
+            @Nullable String payload, Lane lane, Class<T> responseType) {
+        return executeWithRetryAsync(thingId, endpoint, method, payload, lane, responseType, MAX_RETRIES);
+    }
+
+    private <T> CompletableFuture<@Nullable T> executeWithRetryAsync(String thingId, String endpoint, String method,
+            @Nullable String payload, Lane lane, Class<T> responseType, int maxAttempts) {
+        CompletableFuture<@Nullable T> result = new CompletableFuture<>();
+        String budgetKey = thingApiKeys.getOrDefault(thingId, thingId);
+        retryBudget.recordRequest(budgetKey);
+        executeAttempt(thingId, endpoint, method, payload, lane, responseType, budgetKey, 1, maxAttempts, result);
+        return result;
+    }
+
+    private <T> void executeAttempt(String thingId, String endpoint, String method, @Nullable String payload,
+            Lane lane, Class<T> responseType, String budgetKey, int attempt, int maxAttempts,
+            CompletableFuture<@Nullable T> result) {
+        if (result.isDone()) {
+            // Cancelled by a caller whose deadline passed
+            return;
+        }
+        CompletableFuture<@Nullable T> request = executeRequestAsync(thingId, endpoint, method, payload, lane,
+                responseType);
+        result.whenComplete((value, failure) -> request.cancel(true));
+        request.whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+
+            RachioException e = toRachioException(failure);
+            if (attempt < maxAttempts && isRetryable(e)) {
+                if (retryBudget.tryAcquire(budgetKey)) {
+                    long delay = getRetryDelay(attempt);
+                    logger.debug("Request failed (attempt {}/{}), retrying in {} ms: {}",
+                               attempt, maxAttempts, delay, e.getMessage());
+                    try {
+                        schedule(lane, () -> executeAttempt(thingId, endpoint, method, payload, lane,
+                                responseType, budgetKey, attempt + 1, maxAttempts, result),
+                                TimeUnit.MILLISECONDS.toNanos(delay));
+                        return;
+                    } catch (RejectedExecutionException re) {
+                        logger.debug("Retry not scheduled, service is shutting down");
+                    }
+                } else {
+                    logger.debug("Retry budget exhausted, not retrying {}: {}", endpoint, e.getMessage());
                 }
-                
-                // Don't retry if we're out of retries
-                if (attempt == MAX_RETRIES) {
-                    break;
+            }
+
+            result.completeExceptionally(e);
+        });
+    }
+
+    private boolean isRetryable(RachioException e) {
+        if (e instanceof RachioCircuitOpenException || e instanceof RachioRateLimitException) {
+            return false;
+        }
+        // Don't retry on client errors (4xx) except 429 (rate limit)
+        Integer statusCode = e.getStatusCode();
+        return statusCode == null || statusCode < 400 || statusCode >= 500 || statusCode == 429;
+    }
+
+    /**
+     * Exponential backoff with equal jitter, so retries of concurrent requests don't hit the API in lockstep
+     */
+    private long getRetryDelay(int attempt) {
+        long backoff = RETRY_DELAY_MS * (1L << (attempt - 1));
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    private <T> CompletableFuture<@Nullable T> executeRequestAsync(String thingId, String endpoint, String method,
+            @Nullable String payload, Lane lane, Class<T> responseType) {
+        String apiKey;
+        try {
+            apiKey = getApiKey(thingId);
+        } catch (RachioException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<@Nullable T> result = new CompletableFuture<>();
+        CompletableFuture<RachioCircuitBreaker> permission = acquireAsync(apiKey, endpoint, lane);
+        // Cancelling the request cancels whichever step it is in
+        result.whenComplete((value, failure) -> permission.cancel(true));
+        permission.whenComplete((breaker, failure) -> {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else if (result.isDone()) {
+                breaker.releasePermission();
+            } else {
+                CompletableFuture<@Nullable T> send = sendAsync(apiKey, endpoint, method, payload, lane,
+                        responseType, breaker);
+                result.whenComplete((value, sendFailure) -> send.cancel(true));
+                send.whenComplete((value, sendFailure) -> {
+                    if (sendFailure != null) {
+                        result.completeExceptionally(sendFailure);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<@Nullable T> sendAsync(String apiKey, String endpoint, String method,
+            @Nullable String payload, Lane lane, Class<T> responseType, RachioCircuitBreaker breaker) {
+        // Time range queries never repeat, only plain resource URLs are worth revalidating
+        boolean cacheable = "GET".equals(method) && endpoint.indexOf('?') < 0;
+        RachioResponseCache.Entry cached = cacheable ? responseCache.get(apiKey, endpoint) : null;
+        Duration timeout = lane == Lane.COMMAND ? COMMAND_REQUEST_TIMEOUT : Duration.ofMillis(REQUEST_TIMEOUT_MS);
+        AtomicReference<CompletableFuture<?>> exchange = new AtomicReference<>();
+        CompletableFuture<@Nullable T> future = exchange(exchange,
+                buildRequest(apiKey, endpoint, method, payload, cached, timeout)).thenCompose(response -> {
+                    if (cached != null && response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED
+                            && !responseType.isInstance(cached.value)) {
+                        // Cached for another type, it cannot answer this request: drop it and fetch the resource
+                        logger.debug("Cached response of {} does not fit {}, fetching it again", endpoint,
+                                responseType.getSimpleName());
+                        responseCache.remove(apiKey, endpoint);
+                        closeBody(response);
+                        return exchange(exchange, buildRequest(apiKey, endpoint, method, payload, null, timeout));
+                    }
+                    return CompletableFuture.completedFuture(response);
+                }).thenApply(response -> {
+            try {
+                if (cached != null) {
+                    return parseConditionalResponse(apiKey, endpoint, cached, response, responseType);
                 }
-                
-                // Exponential backoff
-                long delay = RETRY_DELAY_MS * (long) Math.pow(2, attempt - 1);
-                logger.debug("Request failed (attempt {}/{}), retrying in {} ms: {}", 
-                           attempt, MAX_RETRIES, delay, e.getMessage());
-                
-                try {
-                    Thread.sleep(delay);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RachioException("Request interrupted", ie);
+                T value = parseResponse(apiKey, response, responseType);
+                if (cacheable && value != null) {
+                    cacheResponse(apiKey, endpoint, response, value);
                 }
+                return value;
+            } catch (RachioException e) {
+                throw new CompletionException(e);
             }
-        }
-        
-        // If we get here, all retries failed
-        if (lastException != null) {
-            // Open circuit breaker on persistent failures
-            if (lastException.getStatusCode() == null || lastException.getStatusCode() >= 500) {
-                openCircuitBreaker();
+        });
+        future.whenComplete((value, failure) -> {
+            CompletableFuture<?> current = exchange.get();
+            if (failure instanceof CancellationException && current != null) {
+                // Cancelling the derived future alone would leave the exchange running
+                current.cancel(true);
             }
-            throw lastException;
+            recordOutcome(breaker, failure);
+        });
+        return future;
+    }
+
+    /**
+     * Send a request, remembering its exchange so it can be cancelled
+     */
+    private CompletableFuture<HttpResponse<InputStream>> exchange(AtomicReference<CompletableFuture<?>> current,
+            HttpRequest request) {
+        CompletableFuture<HttpResponse<InputStream>> exchange = httpClient.sendAsync(request,
+                HttpResponse.BodyHandlers.ofInputStream());
+        current.set(exchange);
+        return exchange;
+    }
+
+    /**
+     * Get a rate limit token and then permission from the endpoint's circuit breaker for the call. Waiting
+     * for a token is scheduled rather than blocking the caller, and fails once it would take longer than
+     * the lane may wait. The token comes first so a half-open breaker's probe is never held up by it.
+     */
+    private CompletableFuture<RachioCircuitBreaker> acquireAsync(String apiKey, String endpoint, Lane lane) {
+        // Commands have breakers of their own, failing polls must not block "stop watering"
+        String family = lane == Lane.COMMAND ? getEndpointFamily(endpoint) + "-command" : getEndpointFamily(endpoint);
+        RachioCircuitBreaker breaker = circuitBreakers.computeIfAbsent(apiKey, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(family, f -> new RachioCircuitBreaker(family + "@" + maskApiKey(apiKey),
+                        CIRCUIT_WINDOW_SIZE, CIRCUIT_MINIMUM_CALLS, CIRCUIT_FAILURE_RATE, CIRCUIT_TIMEOUT));
+        CompletableFuture<@Nullable Void> token = new CompletableFuture<>();
+        long deadline = System.nanoTime() + (lane == Lane.COMMAND ? COMMAND_MAX_WAIT : POLL_MAX_WAIT).toNanos();
+        acquireToken(apiKey, lane, deadline, token);
+        CompletableFuture<RachioCircuitBreaker> permission = token.thenApply(value -> {
+            if (!breaker.tryAcquirePermission()) {
+                throw new CompletionException(new RachioCircuitOpenException(
+                        "Circuit breaker open for /" + family + " - API temporarily unavailable"));
+            }
+            return breaker;
+        });
+        permission.whenComplete((value, failure) -> {
+            if (failure instanceof CancellationException) {
+                // Stop waiting for a token nobody needs anymore
+                token.cancel(false);
+            }
+        });
+        return permission;
+    }
+
+    /**
+     * Take a rate limit token, or try again once the bucket will hold one
+     */
+    private void acquireToken(String apiKey, Lane lane, long deadline, CompletableFuture<@Nullable Void> result) {
+        if (result.isDone()) {
+            return;
+        }
+        long waitNanos = rateLimiter.tryAcquire(apiKey, lane);
+        if (waitNanos == 0) {
+            result.complete(null);
+            return;
+        }
+        if (waitNanos > deadline - System.nanoTime()) {
+            // Reported like a 429 so it is never mistaken for an API outage
+            result.completeExceptionally(new RachioRateLimitException("Rate limit exceeded (" + lane + " lane, "
+                    + rateLimiter.getAvailableTokens(apiKey) + " requests left)"));
+            return;
+        }
+        try {
+            schedule(lane, () -> acquireToken(apiKey, lane, deadline, result), waitNanos);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new RachioException("Request not sent, service is shutting down", e));
         }
-        
-        throw new RachioException("Request failed after " + MAX_RETRIES + " attempts");
     }
 
-    private <T> @Nullable T executeRequest(String thingId, String endpoint, String method,
-                                         @Nullable String payload, Class<T> responseType) 
-            throws RachioException {
-        HttpURLConnection connection = null;
+    /**
+     * Run a delayed step of a request: command steps on the command executor, so they never queue behind
+     * polls, everything else on the shared scheduler
+     */
+    private void schedule(Lane lane, Runnable task, long delayNanos) {
+        if (lane == Lane.COMMAND) {
+            commandExecutor.schedule(task, Duration.ofNanos(delayNanos));
+        } else {
+            scheduler.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Only network errors, server errors and 429 count against the breaker, any other answer means the API
+     * is up. Failures that say nothing about the API, like unparsable bodies or interrupts, are not counted.
+     */
+    private void recordOutcome(RachioCircuitBreaker breaker, @Nullable Throwable failure) {
+        if (failure == null) {
+            breaker.onSuccess();
+            return;
+        }
+        RachioException e = toRachioException(failure);
+        Integer statusCode = e.getStatusCode();
+        if (statusCode != null) {
+            recordStatus(breaker, statusCode);
+        } else if (e.getCause() instanceof IOException) {
+            breaker.onFailure();
+        } else {
+            breaker.releasePermission();
+        }
+    }
+
+    private void recordStatus(RachioCircuitBreaker breaker, int statusCode) {
+        if (statusCode >= 500 || statusCode == 429) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    private static String getEndpointFamily(String endpoint) {
+        int start = endpoint.startsWith("/") ? 1 : 0;
+        int end = endpoint.indexOf('/', start);
+        return end < 0 ? endpoint.substring(start) : endpoint.substring(start, end);
+    }
+
+    private static String maskApiKey(String apiKey) {
+        return apiKey.substring(0, Math.min(8, apiKey.length())) + "...";
+    }
+
+    /**
+     * Serve a 304 answer from the cached object, otherwise parse the body and replace the cache entry. The
+     * cached object is handed out as is, callers treat the polled DTOs as read-only.
+     */
+    private <T> @Nullable T parseConditionalResponse(String apiKey, String endpoint, RachioResponseCache.Entry cached,
+            HttpResponse<InputStream> response, Class<T> responseType) throws RachioException {
+        boolean notModified = response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED;
+        responseCache.recordConditionalRequest(notModified);
+        if (responseCache.getConditionalRequests() % CACHE_STATS_INTERVAL == 0) {
+            logger.debug("Conditional requests: {} sent, {}% answered with 304",
+                    responseCache.getConditionalRequests(), Math.round(responseCache.getHitRatio() * 100));
+        }
+
+        if (notModified && responseType.isInstance(cached.value)) {
+            updateRateLimit(apiKey, response);
+            closeBody(response);
+            logger.trace("{} not modified, serving cached response", endpoint);
+            return responseType.cast(cached.value);
+        }
+
+        T value = parseResponse(apiKey, response, responseType);
+        if (value != null) {
+            cacheResponse(apiKey, endpoint, response, value);
+        }
+        return value;
+    }
+
+    private static void closeBody(HttpResponse<InputStream> response) {
         try {
-            checkRateLimit();
-            checkCircuitBreaker();
-            
-            String apiKey = getApiKey(thingId);
-            URL url = new URL(BASE_URL + endpoint);
-            connection = (HttpURLConnection) url.openConnection();
-            configureConnection(connection, method, apiKey);
-            
-            // Send payload for PUT/POST requests
-            if (payload != null && (method.equals("PUT") || method.equals("POST"))) {
-                connection.setDoOutput(true);
-                try (var outputStream = connection.getOutputStream()) {
-                    outputStream.write(payload.getBytes());
-                    outputStream.flush();
-                }
-            }
-            
-            int responseCode = connection.getResponseCode();
-            incrementRequestCount();
-            
+            response.body().close();
+        } catch (IOException e) {
+            // Nothing to read from a 304
+        }
+    }
+
+    private void cacheResponse(String apiKey, String endpoint, HttpResponse<?> response, Object value) {
+        responseCache.put(apiKey, endpoint, response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null), value);
+    }
+
+    private <T> @Nullable T parseResponse(String apiKey, HttpResponse<InputStream> response, Class<T> responseType)
+            throws RachioException {
+        updateRateLimit(apiKey, response);
+        int responseCode = response.statusCode();
+        try (InputStream body = response.body()) {
             if (responseCode == HttpURLConnection.HTTP_OK) {
-                try (var reader = new InputStreamReader(connection.getInputStream())) {
-                    return gson.fromJson(reader, responseType);
-                }
+                return gson.fromJson(new InputStreamReader(body, StandardCharsets.UTF_8), responseType);
             } else if (responseCode == HttpURLConnection.HTTP_NO_CONTENT) {
                 return null; // Successful but no content
-            } else {
-                handleErrorResponse(connection, responseCode);
-                return null;
             }
-        } catch (JsonSyntaxException e) {
+            handleErrorResponse(apiKey, responseCode, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            return null;
+        } catch (JsonParseException e) {
             throw new RachioException("Invalid JSON response from Rachio API", e);
         } catch (IOException e) {
             handleException(e);
             throw new RachioException("Network error communicating with Rachio API: " + e.getMessage(), e);
-        } catch (Exception e) {
-            handleException(e);
-            throw new RachioException("Unexpected error: " + e.getMessage(), e);
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
         }
     }
 
-    private void configureConnection(HttpURLConnection connection, String method, String apiKey) 
-            throws IOException {
-        connection.setRequestMethod(method);
-        connection.setConnectTimeout(REQUEST_TIMEOUT_MS);
-        connection.setReadTimeout(REQUEST_TIMEOUT_MS);
-        connection.setRequestProperty("Authorization", "Bearer " + apiKey);
-        connection.setRequestProperty("Content-Type", "application/json");
-        connection.setRequestProperty("User-Agent", "openHAB-Rachio-Binding/5.0.1");
-        connection.setUseCaches(false);
-        connection.setDoInput(true);
+    /**
+     * Wait for an asynchronous request and translate its failure into a {@link RachioException}
+     */
+    private <T> T await(CompletableFuture<T> future) throws RachioException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RachioException("Request interrupted", e);
+        } catch (ExecutionException e) {
+            throw toRachioException(e.getCause());
+        }
     }
 
-    private void checkRateLimit() throws RachioException {
-        synchronized (rateLimitLock) {
-            // Reset counter if we're in a new window
-            if (Duration.between(rateLimitWindowStart, Instant.now()).compareTo(RATE_LIMIT_PERIOD) > 0) {
-                requestCount.set(0);
-                rateLimitWindowStart = Instant.now();
-            }
-            
-            // Check if we're over limit
-            if (requestCount.get() >= RATE_LIMIT_REQUESTS) {
-                throw new RachioException("Rate limit exceeded (" + RATE_LIMIT_REQUESTS + 
-                                        " requests per " + RATE_LIMIT_PERIOD + ")");
-            }
+    private RachioException toRachioException(@Nullable Throwable failure) {
+        Throwable cause = failure;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
         }
+        if (cause instanceof RachioException) {
+            return (RachioException) cause;
+        } else if (cause instanceof IOException) {
+            handleException((IOException) cause);
+            return new RachioException("Network error communicating with Rachio API: " + cause.getMessage(), cause);
+        } else if (cause != null) {
+            return new RachioException("Unexpected error: " + cause.getMessage(), cause);
+        }
+        return new RachioException("Unexpected error");
     }
 
-    private void incrementRequestCount() {
-        requestCount.incrementAndGet();
+    private HttpRequest buildRequest(String apiKey, String endpoint, String method, @Nullable String payload) {
+        return buildRequest(apiKey, endpoint, method, payload, null, Duration.ofMillis(REQUEST_TIMEOUT_MS));
     }
 
-    private void checkCircuitBreaker() throws RachioException {
-        if (circuitOpen) {
-            if (Duration.between(circuitOpenedAt, Instant.now()).compareTo(CIRCUIT_TIMEOUT) > 0) {
-                // Timeout expired, try again
-                circuitOpen = false;
-                logger.info("Circuit breaker closed after timeout");
-            } else {
-                throw new RachioException("Circuit breaker open - API temporarily unavailable");
+    private HttpRequest buildRequest(String apiKey, String endpoint, String method, @Nullable String payload,
+            RachioResponseCache.@Nullable Entry validators, Duration timeout) {
+        // Send payload for PUT/POST requests
+        HttpRequest.BodyPublisher body = payload != null && (method.equals("PUT") || method.equals("POST"))
+                ? HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8)
+                : HttpRequest.BodyPublishers.noBody();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(BASE_URL + endpoint))
+                .method(method, body)
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .header("User-Agent", USER_AGENT);
+        if (validators != null) {
+            String etag = validators.etag;
+            String lastModified = validators.lastModified;
+            if (etag != null) {
+                builder.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                builder.header("If-Modified-Since", lastModified);
             }
         }
+        return builder.build();
     }
 
-    private void openCircuitBreaker() {
-        if (!circuitOpen) {
-            circuitOpen = true;
-            circuitOpenedAt = Instant.now();
-            logger.warn("Circuit breaker opened due to persistent failures");
+    /**
+     * Feed the API's own quota headers into the rate limiter, they win over our local estimate
+     */
+    private void updateRateLimit(String apiKey, HttpResponse<?> response) {
+        String remainingHeader = response.headers().firstValue(HEADER_RATE_LIMIT_REMAINING).orElse(null);
+        if (remainingHeader == null) {
+            return;
+        }
+        try {
+            int remaining = Integer.parseInt(remainingHeader.trim());
+            Instant resetAt = parseResetHeader(response.headers().firstValue(HEADER_RATE_LIMIT_RESET).orElse(null));
+            rateLimiter.update(apiKey, remaining, resetAt);
+            logger.trace("API rate limit: {} requests remaining, reset at {}", remaining, resetAt);
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring invalid {} header: {}", HEADER_RATE_LIMIT_REMAINING, remainingHeader);
+        }
+    }
+
+    private @Nullable Instant parseResetHeader(@Nullable String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            // Rachio sends an ISO-8601 timestamp, fall back to epoch seconds
+            return Instant.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            try {
+                return Instant.ofEpochSecond(Long.parseLong(trimmed));
+            } catch (NumberFormatException ne) {
+                logger.debug("Ignoring invalid {} header: {}", HEADER_RATE_LIMIT_RESET, value);
+                return null;
+            }
         }
     }
 
@@ -363,15 +849,14 @@ public class RachioHttp {
         return apiKey;
     }
 
-    private void handleErrorResponse(HttpURLConnection connection, int responseCode) throws RachioException {
+    private void handleErrorResponse(String apiKey, int responseCode, @Nullable String errorBody)
+            throws RachioException {
         String errorMessage = "HTTP " + responseCode;
         try {
-            if (connection.getErrorStream() != null) {
-                try (var reader = new InputStreamReader(connection.getErrorStream())) {
-                    var errorResponse = gson.fromJson(reader, Object.class);
-                    if (errorResponse != null) {
-                        errorMessage += " - " + errorResponse.toString();
-                    }
+            if (errorBody != null && !errorBody.isBlank()) {
+                var errorResponse = gson.fromJson(errorBody, Object.class);
+                if (errorResponse != null) {
+                    errorMessage += " - " + errorResponse.toString();
                 }
             }
         } catch (Exception e) {
@@ -386,6 +871,7 @@ public class RachioHttp {
             case 404:
                 throw new RachioException("Resource not found", responseCode);
             case 429:
+                rateLimiter.exhaust(apiKey);
                 throw new RachioException("Rate limit exceeded", responseCode);
             case 500:
             case 502:
@@ -399,28 +885,4 @@ public class RachioHttp {
     private void handleException(Exception e) {
         logger.debug("API request exception: {}", e.getMessage(), e);
     }
-
-    private void startCleanupTask() {
-        cleanupTask = scheduler.scheduleAtFixedRate(() -> {
-            try {
-                // Reset rate limit counter if window expired
-                synchronized (rateLimitLock) {
-                    if (Duration.between(rateLimitWindowStart, Instant.now()).compareTo(RATE_LIMIT_PERIOD) > 0) {
-                        requestCount.set(0);
-                        rateLimitWindowStart = Instant.now();
-                        logger.debug("Rate limit counter reset");
-                    }
-                }
-                
-                // Close circuit breaker if timeout expired
-                if (circuitOpen && 
-                    Duration.between(circuitOpenedAt, Instant.now()).compareTo(CIRCUIT_TIMEOUT) > 0) {
-                    circuitOpen = false;
-                    logger.info("Circuit breaker closed by cleanup task");
-                }
-            } catch (Exception e) {
-                logger.debug("Cleanup task error: {}", e.getMessage());
-            }
-        }, 5, 5, TimeUnit.MINUTES); // Run every 5 minutes
-    }
 }
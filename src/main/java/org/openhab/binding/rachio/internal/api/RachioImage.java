@@ -0,0 +1,164 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link RachioImage} is a zone or device photo as returned by the API, with the validator needed
+ * to revalidate it later. The image lives in a file; small images are also kept in memory.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioImage {
+    public static final String DEFAULT_CONTENT_TYPE = "image/jpeg";
+
+    private final Path file;
+    private final long length;
+    private final String contentType;
+    private final @Nullable String etag;
+    private final long version;
+    private final byte @Nullable [] data;
+
+    /**
+     * @param file file holding the image
+     * @param length size of the image in bytes
+     * @param contentType content type reported by the API
+     * @param etag validator reported by the API, if any
+     * @param version changes whenever the content does, e.g. the modification time of the file
+     * @param data the image in memory, or null to read it from the file when needed
+     */
+    public RachioImage(Path file, long length, String contentType, @Nullable String etag, long version,
+            byte @Nullable [] data) {
+        this.file = file;
+        this.length = length;
+        this.contentType = contentType;
+        this.etag = etag;
+        this.version = version;
+        this.data = data;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public @Nullable String getEtag() {
+        return etag;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isInMemory() {
+        return data != null;
+    }
+
+    /**
+     * Get the ETag to send to browsers: the API's one if it sent one, otherwise one derived from size and version
+     */
+    public String getEntityTag() {
+        String apiTag = etag;
+        if (apiTag != null) {
+            return apiTag;
+        }
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(version) + "\"";
+    }
+
+    /**
+     * Open the image for reading, from memory if it is held there
+     */
+    public InputStream newInputStream() throws IOException {
+        byte[] bytes = data;
+        return bytes != null ? new ByteArrayInputStream(bytes) : Files.newInputStream(file);
+    }
+
+    /**
+     * Open the image for serving, from memory if it is held there
+     *
+     * @throws java.nio.file.NoSuchFileException if the file was removed from the cache meanwhile
+     */
+    public Content open() throws IOException {
+        byte[] bytes = data;
+        if (bytes != null) {
+            return new Content(bytes, null, bytes.length);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new Content(null, channel, channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * An image opened for serving. The length is taken from the opened file and the bytes are streamed from
+     * the same handle, so both still match if the cache replaces or deletes the file meanwhile.
+     */
+    public static final class Content implements Closeable {
+        private final byte @Nullable [] data;
+        private final @Nullable FileChannel channel;
+        private final long length;
+
+        private Content(byte @Nullable [] data, @Nullable FileChannel channel, long length) {
+            this.data = data;
+            this.channel = channel;
+            this.length = length;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        /**
+         * Copy the image to a stream, straight from memory or by letting the file channel transfer it, so
+         * large images are never loaded onto the heap
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            byte[] bytes = data;
+            FileChannel source = channel;
+            if (bytes != null) {
+                out.write(bytes);
+            } else if (source != null) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = 0;
+                while (position < length) {
+                    long transferred = source.transferTo(position, length - position, target);
+                    if (transferred <= 0) {
+                        throw new IOException("Image file ended after " + position + " of " + length + " bytes");
+                    }
+                    position += transferred;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            FileChannel source = channel;
+            if (source != null) {
+                source.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioImageCache} keeps zone and device photos in a bounded in-memory LRU backed by a
+ * directory on disk, keyed by image id. Images younger than the freshness period are served without
+ * asking the API; older ones are revalidated with their ETag, which costs no download if unchanged.
+ * If the API cannot be reached, the stale copy is served. Concurrent requests for the same image share
+ * a single fetch. Images are downloaded straight into the disk tier and served from there; only images up
+ * to {@link #MAX_INLINE_BYTES} are also held in memory.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioImageCache {
+    private final Logger logger = LoggerFactory.getLogger(RachioImageCache.class);
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_.-]{1,128}");
+    private static final String DATA_SUFFIX = ".img";
+    private static final String META_SUFFIX = ".properties";
+    private static final String META_CONTENT_TYPE = "contentType";
+    private static final String META_ETAG = "etag";
+    private static final String META_VALIDATED = "validated";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Larger images are streamed from disk instead of being held in memory
+    public static final int MAX_INLINE_BYTES = 256 * 1024;
+    // Bounds the entries of images only kept on disk, which do not count against the memory limit
+    private static final int MAX_MEMORY_ENTRIES = 1024;
+
+    /**
+     * Fetches an image from the API, revalidating the cached copy if one is passed. A changed image is
+     * written to the target file; the cached copy is returned if it is still valid.
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+        @Nullable
+        RachioImage fetch(String imageId, @Nullable RachioImage cached, Path target) throws RachioException;
+    }
+
+    /**
+     * A cached image and the time it was last confirmed by the API
+     */
+    public static class Entry {
+        private final RachioImage image;
+        private final Instant validatedAt;
+
+        Entry(RachioImage image, Instant validatedAt) {
+            this.image = image;
+            this.validatedAt = validatedAt;
+        }
+
+        public RachioImage getImage() {
+            return image;
+        }
+
+        public Instant getValidatedAt() {
+            return validatedAt;
+        }
+    }
+
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final Duration freshness;
+    private final Map<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0;
+    private final Map<String, CompletableFuture<@Nullable Entry>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory directory for the disk tier, created on demand
+     * @param maxMemoryBytes image bytes kept in memory
+     * @param maxDiskBytes image bytes kept on disk
+     * @param freshness time an image is served without revalidating it
+     */
+    public RachioImageCache(Path directory, long maxMemoryBytes, long maxDiskBytes, Duration freshness) {
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.freshness = freshness;
+    }
+
+    /**
+     * Check whether an image id is safe to use as a cache key and file name
+     */
+    public static boolean isValidId(String imageId) {
+        return VALID_ID.matcher(imageId).matches() && !imageId.startsWith(".");
+    }
+
+    public Duration getFreshness() {
+        return freshness;
+    }
+
+    /**
+     * Get an image from memory, disk or the API, in that order
+     *
+     * @return the image, or null if the API does not know it
+     */
+    public @Nullable Entry get(String imageId, Fetcher fetcher) throws RachioException {
+        Entry cached = lookup(imageId);
+        if (cached != null && Duration.between(cached.validatedAt, Instant.now()).compareTo(freshness) < 0) {
+            return cached;
+        }
+
+        CompletableFuture<@Nullable Entry> fetch = new CompletableFuture<>();
+        CompletableFuture<@Nullable Entry> running = inFlight.putIfAbsent(imageId, fetch);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            Entry entry = fetch(imageId, cached, fetcher);
+            fetch.complete(entry);
+            return entry;
+        } catch (RachioException | RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(imageId, fetch);
+        }
+    }
+
+    private @Nullable Entry fetch(String imageId, @Nullable Entry cached, Fetcher fetcher) throws RachioException {
+        Path target = null;
+        try {
+            Files.createDirectories(directory);
+            target = Files.createTempFile(directory, imageId, TEMP_SUFFIX);
+            RachioImage fetched = fetcher.fetch(imageId, cached != null ? cached.image : null, target);
+            if (fetched == null) {
+                remove(imageId);
+                return null;
+            }
+            if (cached == null || fetched != cached.image) {
+                fetched = install(imageId, fetched);
+            }
+            Entry entry = new Entry(fetched, Instant.now());
+            store(imageId, entry);
+            return entry;
+        } catch (IOException | RachioException e) {
+            if (cached != null) {
+                logger.debug("Revalidating image {} failed, serving cached copy: {}", imageId, e.getMessage());
+                return cached;
+            }
+            throw e instanceof RachioException ? (RachioException) e
+                    : new RachioException("Failed to store image " + imageId + ": " + e.getMessage(), e);
+        } finally {
+            if (target != null) {
+                deleteQuietly(target);
+            }
+        }
+    }
+
+    /**
+     * Move a freshly downloaded image into place, replacing the previous version atomically
+     */
+    private RachioImage install(String imageId, RachioImage fetched) throws IOException {
+        Path file = directory.resolve(imageId + DATA_SUFFIX);
+        Files.move(fetched.getFile(), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        RachioImage image = open(file, fetched.getContentType(), fetched.getEtag());
+        try {
+            pruneDisk(file);
+        } catch (IOException e) {
+            logger.debug("Failed to prune the image disk cache: {}", e.getMessage());
+        }
+        return image;
+    }
+
+    /**
+     * Describe an image file, loading it into memory if it is small enough
+     */
+    private RachioImage open(Path file, String contentType, @Nullable String etag) throws IOException {
+        long length = Files.size(file);
+        byte[] data = length <= MAX_INLINE_BYTES ? Files.readAllBytes(file) : null;
+        return new RachioImage(file, length, contentType, etag, Files.getLastModifiedTime(file).toMillis(), data);
+    }
+
+    /**
+     * Wait for a fetch started by another request
+     */
+    private @Nullable Entry await(CompletableFuture<@Nullable Entry> running) throws RachioException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RachioException("Interrupted while waiting for image", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RachioException) {
+                throw (RachioException) cause;
+            }
+            throw new RachioException("Image fetch failed: " + (cause != null ? cause.getMessage() : ""), e);
+        }
+    }
+
+    private @Nullable Entry lookup(String imageId) {
+        synchronized (memory) {
+            Entry entry = memory.get(imageId);
+            if (entry != null && (entry.image.isInMemory() || Files.isRegularFile(entry.image.getFile()))) {
+                return entry;
+            }
+            if (entry != null) {
+                // The file was pruned from the disk tier
+                memory.remove(imageId);
+            }
+        }
+        Entry entry = readFromDisk(imageId);
+        if (entry != null) {
+            putInMemory(imageId, entry);
+        }
+        return entry;
+    }
+
+    private void store(String imageId, Entry entry) {
+        putInMemory(imageId, entry);
+        try {
+            writeMetadata(imageId, entry);
+        } catch (IOException e) {
+            logger.debug("Failed to write image {} to the disk cache: {}", imageId, e.getMessage());
+        }
+    }
+
+    private void putInMemory(String imageId, Entry entry) {
+        synchronized (memory) {
+            Entry previous = memory.put(imageId, entry);
+            if (previous != null) {
+                memoryBytes -= memorySize(previous);
+            }
+            memoryBytes += memorySize(entry);
+
+            Iterator<Map.Entry<String, Entry>> iterator = memory.entrySet().iterator();
+            while ((memoryBytes > maxMemoryBytes || memory.size() > MAX_MEMORY_ENTRIES) && iterator.hasNext()) {
+                Map.Entry<String, Entry> eldest = iterator.next();
+                if (eldest.getKey().equals(imageId)) {
+                    // Never evict the image just stored, even if it alone exceeds the limit
+                    continue;
+                }
+                memoryBytes -= memorySize(eldest.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    private static long memorySize(Entry entry) {
+        return entry.image.isInMemory() ? entry.image.getLength() : 0;
+    }
+
+    private void remove(String imageId) {
+        synchronized (memory) {
+            Entry previous = memory.remove(imageId);
+            if (previous != null) {
+                memoryBytes -= memorySize(previous);
+            }
+        }
+        try {
+            Files.deleteIfExists(directory.resolve(imageId + DATA_SUFFIX));
+            Files.deleteIfExists(directory.resolve(imageId + META_SUFFIX));
+        } catch (IOException e) {
+            logger.debug("Failed to remove image {} from the disk cache: {}", imageId, e.getMessage());
+        }
+    }
+
+    private @Nullable Entry readFromDisk(String imageId) {
+        Path data = directory.resolve(imageId + DATA_SUFFIX);
+        Path meta = directory.resolve(imageId + META_SUFFIX);
+        if (!Files.isRegularFile(data) || !Files.isRegularFile(meta)) {
+            return null;
+        }
+        try {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(meta)) {
+                properties.load(in);
+            }
+            RachioImage image = open(data,
+                    properties.getProperty(META_CONTENT_TYPE, RachioImage.DEFAULT_CONTENT_TYPE),
+                    properties.getProperty(META_ETAG));
+            Instant validatedAt = Instant.ofEpochMilli(Long.parseLong(properties.getProperty(META_VALIDATED, "0")));
+            return new Entry(image, validatedAt);
+        } catch (IOException | NumberFormatException e) {
+            logger.debug("Ignoring unreadable disk cache entry for image {}: {}", imageId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write the metadata through a temporary file so a crash never leaves a truncated entry behind
+     */
+    private void writeMetadata(String imageId, Entry entry) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(META_CONTENT_TYPE, entry.image.getContentType());
+        String etag = entry.image.getEtag();
+        if (etag != null) {
+            properties.setProperty(META_ETAG, etag);
+        }
+        properties.setProperty(META_VALIDATED, Long.toString(entry.validatedAt.toEpochMilli()));
+        Path tmp = Files.createTempFile(directory, imageId, TEMP_SUFFIX);
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            properties.store(out, null);
+        }
+        Files.move(tmp, directory.resolve(imageId + META_SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Delete the least recently written images until the disk tier fits its limit again, keeping the one
+     * just stored even if it alone exceeds the limit
+     */
+    private void pruneDisk(Path keep) throws IOException {
+        List<Path> images;
+        try (Stream<Path> files = Files.list(directory)) {
+            images = files.filter(path -> path.getFileName().toString().endsWith(DATA_SUFFIX))
+                    .sorted(Comparator.comparingLong(this::lastModified)).collect(Collectors.toList());
+        }
+        long total = 0;
+        for (Path image : images) {
+            total += Files.size(image);
+        }
+        for (Path image : images) {
+            if (total <= maxDiskBytes) {
+                break;
+            }
+            if (image.equals(keep)) {
+                continue;
+            }
+            total -= Files.size(image);
+            String name = image.getFileName().toString();
+            Files.deleteIfExists(image);
+            Files.deleteIfExists(directory.resolve(name.substring(0, name.length() - DATA_SUFFIX.length())
+                    + META_SUFFIX));
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Failed to delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -1,20 +1,23 @@
 package org.openhab.binding.rachio.internal.api;
 
 import java.io.IOException;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
 import org.openhab.binding.rachio.internal.handler.RachioHandler;
+import org.openhab.core.OpenHAB;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
-import org.osgi.service.component.annotations.ReferenceCardinality;
-import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,67 +28,89 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class RachioImageServlet extends HttpServlet {
     private final Logger logger = LoggerFactory.getLogger(RachioImageServlet.class);
-    private final Set<RachioHandler> handlers = ConcurrentHashMap.newKeySet();
+    private final RachioWebhookRouter router;
+
+    // Zone photos rarely change, browsers and the binding may keep them for an hour
+    private static final Duration IMAGE_FRESHNESS = Duration.ofHours(1);
+    private static final long MAX_MEMORY_BYTES = 8L * 1024 * 1024;
+    // Includes the resized renditions
+    private static final long MAX_DISK_BYTES = 64L * 1024 * 1024;
+    private final RachioImageCache imageCache = new RachioImageCache(
+            Path.of(OpenHAB.getUserDataFolder(), "cache", "org.openhab.binding.rachio", "images"),
+            MAX_MEMORY_BYTES, MAX_DISK_BYTES, IMAGE_FRESHNESS);
 
     @Activate
-    public RachioImageServlet() {
+    public RachioImageServlet(@Reference RachioWebhookRouter router) {
+        this.router = router;
         logger.debug("RachioImageServlet activated");
     }
 
-    @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
-    public void addRachioHandler(RachioHandler handler) {
-        handlers.add(handler);
-        logger.debug("RachioHandler registered for image serving: {}", handler.getThing().getUID());
-    }
-
-    public void removeRachioHandler(RachioHandler handler) {
-        handlers.remove(handler);
-        logger.debug("RachioHandler unregistered from image serving: {}", handler.getThing().getUID());
-    }
-
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         try {
             String pathInfo = req.getPathInfo();
             logger.debug("Image request received: {}", pathInfo);
-            
+
             if (pathInfo == null || pathInfo.equals("/") || pathInfo.isEmpty()) {
                 logger.warn("Invalid image request path: {}", pathInfo);
                 resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
                 return;
             }
-            
+
             // Extract image ID from path (remove leading slash)
             String imageId = pathInfo.startsWith("/") ? pathInfo.substring(1) : pathInfo;
-            
-            if (imageId.isEmpty()) {
-                logger.warn("Empty image ID in request");
+
+            if (!RachioImageCache.isValidId(imageId)) {
+                logger.warn("Invalid image ID in request: {}", imageId);
                 resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
                 return;
             }
-            
-            // Try to find a handler that can serve this image
-            boolean handled = false;
-            for (RachioHandler handler : handlers) {
-                try {
-                    handler.handleImageCall(req, resp);
-                    // If the response is committed, the handler served the image
-                    if (resp.isCommitted()) {
-                        handled = true;
-                        logger.debug("Image served successfully by handler for image ID: {}", imageId);
-                        break;
-                    }
-                } catch (Exception e) {
-                    logger.debug("Handler failed to serve image {}, trying next handler: {}", imageId, e.getMessage());
-                    // Continue to next handler
-                }
+
+            int width = parseDimension(req.getParameter("w"));
+            int height = parseDimension(req.getParameter("h"));
+            if (width < 0 || height < 0) {
+                logger.debug("Invalid image size requested: w={}, h={}", req.getParameter("w"),
+                        req.getParameter("h"));
+                resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return;
             }
-            
-            if (!handled) {
-                logger.warn("No handler could serve image: {}", imageId);
+
+            RachioImageCache.Entry entry = getEntry(imageId, width, height);
+            if (entry == null) {
+                logger.debug("Image {} is not known to any Rachio account", imageId);
                 resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+
+            RachioImage image = entry.getImage();
+            String etag = image.getEntityTag();
+            resp.setHeader("ETag", etag);
+            resp.setHeader("Cache-Control", "public, max-age=" + imageCache.getFreshness().toSeconds());
+            if (etag.equals(req.getHeader("If-None-Match"))) {
+                resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            RachioImage.Content content;
+            try {
+                content = image.open();
+            } catch (NoSuchFileException e) {
+                // Pruned from the disk tier after the lookup, looking it up again fetches it anew
+                entry = getEntry(imageId, width, height);
+                if (entry == null) {
+                    resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                    return;
+                }
+                image = entry.getImage();
+                resp.setHeader("ETag", image.getEntityTag());
+                content = image.open();
+            }
+            try (RachioImage.Content served = content) {
+                resp.setContentType(image.getContentType());
+                resp.setContentLengthLong(served.getLength());
+                served.writeTo(resp.getOutputStream());
             }
-            
+            logger.debug("Image served successfully for image ID: {}", imageId);
         } catch (Exception e) {
             logger.error("Error serving image: {}", e.getMessage(), e);
             if (!resp.isCommitted()) {
@@ -93,11 +118,82 @@ public class RachioImageServlet extends HttpServlet {
             }
         }
     }
-    
+
+    /**
+     * Get an original image, or the rendition of the requested size
+     */
+    private RachioImageCache.@Nullable Entry getEntry(String imageId, int width, int height) throws RachioException {
+        if (width == 0 && height == 0) {
+            return imageCache.get(imageId, this::fetchImage);
+        }
+        return imageCache.get(variantId(imageId, width, height),
+                (id, cached, target) -> resizeImage(imageId, width, height, cached, target));
+    }
+
+    /**
+     * Parse a requested width or height
+     *
+     * @return the dimension, 0 if none was requested or -1 if it is invalid
+     */
+    private static int parseDimension(@Nullable String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            int dimension = Integer.parseInt(value);
+            return dimension > 0 && dimension <= RachioImageResizer.MAX_DIMENSION ? dimension : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Cache key of a resized rendition, kept next to the original in the same cache. The separator is not
+     * valid in requested ids, so a rendition can never be requested as an original.
+     */
+    private static String variantId(String imageId, int width, int height) {
+        return imageId + "~w" + width + "h" + height;
+    }
+
+    /**
+     * Produce a resized rendition from the (cached) original. The rendition is tagged with the original's
+     * entity tag, so it is only rebuilt when the original changed.
+     */
+    private @Nullable RachioImage resizeImage(String imageId, int width, int height, @Nullable RachioImage cached,
+            Path target) throws RachioException {
+        RachioImageCache.Entry original = imageCache.get(imageId, this::fetchImage);
+        if (original == null) {
+            return null;
+        }
+        RachioImage source = original.getImage();
+        String sourceTag = source.getEntityTag();
+        String etag = "\"" + sourceTag.replace("\"", "") + "-w" + width + "h" + height + "\"";
+        if (cached != null && etag.equals(cached.getEtag())) {
+            return cached;
+        }
+        try {
+            String contentType = RachioImageResizer.resize(source, width, height, target);
+            logger.debug("Resized image {} to fit {}x{}", imageId, width, height);
+            return new RachioImage(target, Files.size(target), contentType, etag, System.currentTimeMillis(), null);
+        } catch (IOException e) {
+            throw new RachioException("Failed to resize image " + imageId + ": " + e.getMessage(), e);
+        }
+    }
+
     /**
-     * Get the number of registered handlers (for debugging)
+     * Fetch an image with the account owning the zone it belongs to, images of unknown zones are not fetched
      */
-    public int getHandlerCount() {
-        return handlers.size();
+    private @Nullable RachioImage fetchImage(String imageId, @Nullable RachioImage cached, Path target)
+            throws RachioException {
+        RachioHandler handler = router.routeImage(imageId);
+        if (handler == null) {
+            if (cached == null) {
+                return null;
+            }
+            // The owning thing may still be starting. Failing keeps the cached copy served without marking it
+            // as validated, so it is revalidated once the thing is back.
+            throw new RachioException("No account owns image " + imageId + ", cached copy not revalidated");
+        }
+        return handler.fetchImage(imageId, cached, target);
     }
 }
@@ -0,0 +1,41 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.io.Reader;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.osgi.service.component.annotations.Component;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * The {@link RachioJson} service provides the single, pre-configured Gson instance shared by all
+ * components of the binding, so its type adapters are registered and cached once per bundle start.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@Component(service = RachioJson.class)
+@NonNullByDefault
+public class RachioJson {
+    private final Gson gson = new GsonBuilder()
+            .setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .registerTypeAdapter(Instant.class, new InstantTypeAdapter().nullSafe())
+            .registerTypeAdapterFactory(new SafeReflectiveTypeAdapterFactory())
+            .registerTypeAdapterFactory(new RachioDtoTypeAdapterFactory())
+            .create();
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    public <T> @Nullable T fromJson(String json, Class<T> type) throws JsonParseException {
+        return gson.fromJson(json, type);
+    }
+
+    public <T> @Nullable T fromJson(Reader reader, Class<T> type) throws JsonParseException {
+        return gson.fromJson(reader, type);
+    }
+}
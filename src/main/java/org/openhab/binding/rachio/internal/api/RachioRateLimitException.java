@@ -0,0 +1,19 @@
+package org.openhab.binding.rachio.internal.api;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
+
+/**
+ * Thrown without contacting the API when the local rate limiter has no token within the time a request
+ * may wait. Unlike a 429 from the API it is not retried, the retry would only wait for the same bucket.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioRateLimitException extends RachioException {
+    private static final long serialVersionUID = 1L;
+
+    public RachioRateLimitException(String message) {
+        super(message, 429);
+    }
+}
@@ -0,0 +1,147 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link RachioRateLimiter} keeps one token bucket per API key. Each bucket refills continuously at
+ * the hourly quota rate, and part of it is reserved for commands so background polling can never starve
+ * a start/stop request. Taking a token never blocks: callers are told how long until one is available
+ * and decide themselves whether to wait for it.
+ * Whenever the API reports its own view of the quota, the bucket is corrected to match it.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioRateLimiter {
+
+    /**
+     * Request lanes; polling may only use tokens above the command reserve
+     */
+    public enum Lane {
+        COMMAND,
+        POLL
+    }
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final int commandReserve;
+    private final double tokensPerNano;
+
+    public RachioRateLimiter(int requestsPerPeriod, Duration period, int commandReserve) {
+        this.capacity = requestsPerPeriod;
+        this.commandReserve = commandReserve;
+        this.tokensPerNano = (double) requestsPerPeriod / period.toNanos();
+    }
+
+    /**
+     * Take one token for the given API key if one is available right away
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the bucket holds one for the lane
+     */
+    public long tryAcquire(String apiKey, Lane lane) {
+        return buckets.computeIfAbsent(apiKey, key -> new TokenBucket()).tryAcquire(lane, 1);
+    }
+
+    /**
+     * Get the nanoseconds until the bucket holds the given number of tokens for a lane, without taking any
+     */
+    public long getWaitNanos(String apiKey, Lane lane, int tokens) {
+        TokenBucket bucket = buckets.get(apiKey);
+        return bucket != null ? bucket.waitNanos(lane, tokens) : 0;
+    }
+
+    /**
+     * Empty the bucket after the API answered 429, so callers back off until it refills
+     */
+    public void exhaust(String apiKey) {
+        TokenBucket bucket = buckets.get(apiKey);
+        if (bucket != null) {
+            bucket.exhaust();
+        }
+    }
+
+    /**
+     * Align the bucket with the X-RateLimit-Remaining/X-RateLimit-Reset values reported by the API
+     */
+    public void update(String apiKey, int remaining, @Nullable Instant resetAt) {
+        buckets.computeIfAbsent(apiKey, key -> new TokenBucket()).update(remaining, resetAt);
+    }
+
+    /**
+     * Get the time the API will reset the quota for this key, if it has told us
+     */
+    public @Nullable Instant getResetTime(String apiKey) {
+        TokenBucket bucket = buckets.get(apiKey);
+        return bucket != null ? bucket.resetAt : null;
+    }
+
+    public int getCommandReserve() {
+        return commandReserve;
+    }
+
+    public int getAvailableTokens(String apiKey) {
+        TokenBucket bucket = buckets.get(apiKey);
+        return bucket != null ? bucket.available() : capacity;
+    }
+
+    public void remove(String apiKey) {
+        buckets.remove(apiKey);
+    }
+
+    private class TokenBucket {
+        private double tokens = capacity;
+        private long lastRefill = System.nanoTime();
+        private volatile @Nullable Instant resetAt;
+
+        synchronized long tryAcquire(Lane lane, int count) {
+            long wait = waitNanos(lane, count);
+            if (wait == 0) {
+                tokens -= count;
+            }
+            return wait;
+        }
+
+        synchronized long waitNanos(Lane lane, int count) {
+            refill();
+            int floor = lane == Lane.COMMAND ? 0 : commandReserve;
+            if (tokens - floor >= count) {
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((floor + count - tokens) / tokensPerNano));
+        }
+
+        synchronized void exhaust() {
+            refill();
+            tokens = 0;
+        }
+
+        synchronized void update(int remaining, @Nullable Instant reset) {
+            refill();
+            Instant previousReset = resetAt;
+            if (reset != null && previousReset != null && reset.isAfter(previousReset)) {
+                // A new quota window started, the server has granted us a fresh budget
+                tokens = Math.min(capacity, remaining);
+            } else {
+                tokens = Math.min(tokens, remaining);
+            }
+            resetAt = reset;
+        }
+
+        synchronized int available() {
+            refill();
+            return (int) tokens;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link RachioResponseCache} keeps the validators (ETag, Last-Modified) and the parsed response of
+ * GET requests per API key and URL. They are sent as If-None-Match/If-Modified-Since on the next request,
+ * and a 304 answer is served from the cached object without reading or parsing a body. The same object is
+ * returned for every 304, which is safe because nothing modifies a DTO once it has been parsed.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioResponseCache {
+
+    /**
+     * Validators and parsed value of a cached response
+     */
+    public static class Entry {
+        final @Nullable String etag;
+        final @Nullable String lastModified;
+        final Object value;
+
+        Entry(@Nullable String etag, @Nullable String lastModified, Object value) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
+
+    private final Map<String, Entry> entries;
+    private final AtomicLong conditionalRequests = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    /**
+     * @param maxEntries number of responses kept, the least recently used is evicted first
+     */
+    public RachioResponseCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized @Nullable Entry get(String apiKey, String endpoint) {
+        return entries.get(key(apiKey, endpoint));
+    }
+
+    /**
+     * Remember a response, only if the API sent a validator for it
+     */
+    public synchronized void put(String apiKey, String endpoint, @Nullable String etag, @Nullable String lastModified,
+            Object value) {
+        if (etag == null && lastModified == null) {
+            return;
+        }
+        entries.put(key(apiKey, endpoint), new Entry(etag, lastModified, value));
+    }
+
+    public synchronized void remove(String apiKey, String endpoint) {
+        entries.remove(key(apiKey, endpoint));
+    }
+
+    public synchronized void remove(String apiKey) {
+        String prefix = apiKey + " ";
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Count a request that was sent with validators, and whether the API answered 304
+     */
+    public void recordConditionalRequest(boolean hit) {
+        conditionalRequests.incrementAndGet();
+        if (hit) {
+            notModified.incrementAndGet();
+        }
+    }
+
+    public long getConditionalRequests() {
+        return conditionalRequests.get();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    /**
+     * Share of conditional requests answered with 304 Not Modified
+     */
+    public double getHitRatio() {
+        long requests = conditionalRequests.get();
+        return requests == 0 ? 0 : (double) notModified.get() / requests;
+    }
+
+    private static String key(String apiKey, String endpoint) {
+        return apiKey + " " + endpoint;
+    }
+}
@@ -0,0 +1,64 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link RachioRetryBudget} caps retries per API key at a fraction of the regular request volume.
+ * Every request deposits a share of a token, every retry withdraws a whole one, so during an outage the
+ * binding quickly stops retrying instead of multiplying its load on the API.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioRetryBudget {
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final double retryRatio;
+    private final double maxTokens;
+
+    /**
+     * @param retryRatio retries allowed per regular request, e.g. 0.2 for one retry every five requests
+     * @param maxTokens retries that can be saved up while the API is healthy
+     */
+    public RachioRetryBudget(double retryRatio, double maxTokens) {
+        this.retryRatio = retryRatio;
+        this.maxTokens = maxTokens;
+    }
+
+    public void recordRequest(String key) {
+        budget(key).deposit(retryRatio);
+    }
+
+    /**
+     * Try to spend one retry, returns false if the budget for this key is exhausted
+     */
+    public boolean tryAcquire(String key) {
+        return budget(key).withdraw();
+    }
+
+    public void remove(String key) {
+        budgets.remove(key);
+    }
+
+    private Budget budget(String key) {
+        return budgets.computeIfAbsent(key, k -> new Budget());
+    }
+
+    private class Budget {
+        private double tokens = maxTokens;
+
+        synchronized void deposit(double amount) {
+            tokens = Math.min(maxTokens, tokens + amount);
+        }
+
+        synchronized boolean withdraw() {
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+}
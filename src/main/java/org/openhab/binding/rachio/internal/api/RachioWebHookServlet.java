@@ -1,26 +1,27 @@
 package org.openhab.binding.rachio.internal.api;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
-import org.openhab.binding.rachio.internal.handler.RachioHandler;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.rachio.internal.api.dto.RachioWebhookEvent;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
-import org.osgi.service.component.annotations.ReferenceCardinality;
-import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
 
 /**
  * Servlet for handling Rachio webhook calls
@@ -29,50 +30,41 @@ import com.google.gson.JsonSyntaxException;
 @NonNullByDefault
 public class RachioWebHookServlet extends HttpServlet {
     private final Logger logger = LoggerFactory.getLogger(RachioWebHookServlet.class);
-    private final Gson gson = new Gson();
-    private final Set<RachioHandler> handlers = ConcurrentHashMap.newKeySet();
+    // Rachio events are a few KB at most
+    private static final int MAX_PAYLOAD_SIZE = 64 * 1024;
+    private final RachioJson json;
+    private final RachioWebhookQueue queue;
 
     @Activate
-    public RachioWebHookServlet() {
+    public RachioWebHookServlet(@Reference RachioJson json, @Reference RachioWebhookQueue queue) {
+        this.json = json;
+        this.queue = queue;
         logger.debug("RachioWebHookServlet activated");
     }
 
-    @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
-    public void addRachioHandler(RachioHandler handler) {
-        handlers.add(handler);
-        logger.debug("RachioHandler registered: {}", handler.getThing().getUID());
-    }
-
-    public void removeRachioHandler(RachioHandler handler) {
-        handlers.remove(handler);
-        logger.debug("RachioHandler unregistered: {}", handler.getThing().getUID());
-    }
-
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         try {
-            String payload = req.getReader().lines().reduce("", (accumulator, actual) -> accumulator + actual);
-            logger.debug("Received webhook: {}", payload);
-            
-            // Extract device ID from webhook payload
-            String deviceId = extractDeviceIdFromPayload(payload);
+            byte[] body = readBody(req);
+            if (body == null) {
+                logger.warn("Webhook payload exceeds {} bytes, rejected", MAX_PAYLOAD_SIZE);
+                resp.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                return;
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace("Received webhook: {}", new String(body, StandardCharsets.UTF_8));
+            }
+
+            RachioWebhookEvent event = parseEvent(body);
+            String deviceId = event != null ? event.deviceId : null;
             
-            if (deviceId != null) {
-                boolean handled = false;
-                for (RachioHandler handler : handlers) {
-                    if (handler.handlesDevice(deviceId)) {
-                        handler.handleWebhookCall(req);
-                        handled = true;
-                        logger.debug("Webhook routed to handler for device: {}", deviceId);
-                        break;
-                    }
-                }
-                
-                if (handled) {
+            if (event != null && deviceId != null && !deviceId.isEmpty()) {
+                // Acknowledge right away, Rachio redelivers webhooks that are answered slowly
+                if (queue.offer(event)) {
+                    logger.debug("Webhook for device {} queued, queue depth {}", deviceId, queue.getQueueDepth());
                     resp.setStatus(HttpServletResponse.SC_OK);
                 } else {
-                    logger.warn("No handler found for webhook device: {}", deviceId);
-                    resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                    resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
                 }
             } else {
                 logger.warn("Webhook received without device ID");
@@ -83,12 +75,34 @@ public class RachioWebHookServlet extends HttpServlet {
             resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         }
     }
-    
-    private String extractDeviceIdFromPayload(String payload) {
-        try {
-            RachioWebhookEvent event = gson.fromJson(payload, RachioWebhookEvent.class);
-            return event != null ? event.deviceId : null;
-        } catch (JsonSyntaxException e) {
+
+    /**
+     * Read the request body once into a byte array, returns null if it exceeds {@link #MAX_PAYLOAD_SIZE}
+     */
+    private byte @Nullable [] readBody(HttpServletRequest req) throws IOException {
+        long contentLength = req.getContentLengthLong();
+        if (contentLength > MAX_PAYLOAD_SIZE) {
+            return null;
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 1024);
+        byte[] buffer = new byte[4096];
+        try (InputStream in = req.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (body.size() + read > MAX_PAYLOAD_SIZE) {
+                    return null;
+                }
+                body.write(buffer, 0, read);
+            }
+        }
+        return body.toByteArray();
+    }
+
+    private @Nullable RachioWebhookEvent parseEvent(byte[] body) {
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8)) {
+            return json.fromJson(reader, RachioWebhookEvent.class);
+        } catch (JsonParseException | IOException e) {
             logger.debug("Failed to parse webhook payload: {}", e.getMessage());
             return null;
         }
@@ -0,0 +1,172 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.time.Duration;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioWebhookEvent;
+
+/**
+ * The {@link RachioWebhookDeduplicator} remembers the webhook events seen within a time window, so copies
+ * delivered by retries or by several registered callbacks are only processed once. Events are stored as
+ * 64 bit fingerprints in primitive arrays: a ring buffer in arrival order for expiry and an open addressing
+ * hash table for lookups, which keeps a few thousand remembered events at a few dozen kilobytes.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioWebhookDeduplicator {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // 0 marks a free slot in the hash table
+    private static final long EMPTY = 0;
+
+    private final long windowNanos;
+
+    // Fingerprints and their arrival times, oldest at head
+    private final long[] ringKeys;
+    private final long[] ringTimes;
+    private int head = 0;
+    private int size = 0;
+
+    // Open addressing with linear probing, kept at most half full
+    private final long[] table;
+    private final int mask;
+
+    private long duplicateCount = 0;
+
+    /**
+     * @param capacity number of events remembered at most, the oldest is forgotten first
+     * @param window time an event is remembered
+     */
+    public RachioWebhookDeduplicator(int capacity, Duration window) {
+        this.windowNanos = window.toNanos();
+        this.ringKeys = new long[capacity];
+        this.ringTimes = new long[capacity];
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.table = new long[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /**
+     * Check whether the event was seen within the window and remember it if not
+     *
+     * @return true if the event is a duplicate and should be ignored
+     */
+    public synchronized boolean isDuplicate(RachioWebhookEvent event) {
+        long now = System.nanoTime();
+        expire(now);
+
+        long key = fingerprint(event);
+        if (contains(key)) {
+            duplicateCount++;
+            return true;
+        }
+
+        if (size == ringKeys.length) {
+            removeOldest();
+        }
+        int tail = (head + size) % ringKeys.length;
+        ringKeys[tail] = key;
+        ringTimes[tail] = now;
+        size++;
+        insert(key);
+        return false;
+    }
+
+    public synchronized long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Build the fingerprint from the event id when Rachio sends one, otherwise from the fields that
+     * identify an event: type, device, zone and timestamp
+     */
+    static long fingerprint(RachioWebhookEvent event) {
+        long hash = FNV_OFFSET;
+        // Gson leaves fields null when the payload sends null, whatever their declaration says
+        String id = event.id;
+        if (id != null && !id.isEmpty()) {
+            hash = hash(hash, id);
+        } else {
+            hash = hash(hash, event.externalId);
+            hash = hash(hash, event.eventType);
+            hash = hash(hash, event.deviceId);
+            RachioWebhookEvent.WebhookZone zone = event.zone;
+            if (zone != null) {
+                hash = hash(hash, zone.id);
+                hash = hash(hash, zone.status);
+            }
+        }
+        hash = hash(hash, event.timestamp);
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    private static long hash(long hash, @Nullable String value) {
+        if (value == null) {
+            return (hash ^ 0xfe) * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // Field separator, so "ab"+"c" and "a"+"bc" differ
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+
+    private void expire(long now) {
+        while (size > 0 && now - ringTimes[head] > windowNanos) {
+            removeOldest();
+        }
+    }
+
+    private void removeOldest() {
+        remove(ringKeys[head]);
+        head = (head + 1) % ringKeys.length;
+        size--;
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    private boolean contains(long key) {
+        for (int i = slot(key); table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insert(long key) {
+        int i = slot(key);
+        while (table[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+    }
+
+    private void remove(long key) {
+        int i = slot(key);
+        while (table[i] != key) {
+            if (table[i] == EMPTY) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        // Backward shift deletion, keeps every remaining key reachable from its home slot
+        int gap = i;
+        for (int j = (gap + 1) & mask; table[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(table[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                table[gap] = table[j];
+                gap = j;
+            }
+        }
+        table[gap] = EMPTY;
+    }
+}
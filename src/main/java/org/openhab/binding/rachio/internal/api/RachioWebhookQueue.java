@@ -0,0 +1,168 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.rachio.internal.api.dto.RachioWebhookEvent;
+import org.openhab.binding.rachio.internal.handler.RachioHandler;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioWebhookQueue} decouples webhook delivery from processing. The servlet only validates
+ * and offers events to a bounded lock-free queue, one consumer thread routes and applies them. Since a
+ * single consumer takes events in arrival order, events of the same device are always applied in order.
+ * Events the router parked for a handler that was still starting are replayed by the same consumer, ahead
+ * of newer events.
+ * Copies of an event that was already accepted are acknowledged but not queued again.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@Component(service = RachioWebhookQueue.class)
+@NonNullByDefault
+public class RachioWebhookQueue {
+    private final Logger logger = LoggerFactory.getLogger(RachioWebhookQueue.class);
+
+    private static final int MAX_QUEUE_SIZE = 1000;
+    // Upper bound for a consumer park, in case an unpark races with the consumer going to sleep
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int DEDUP_CAPACITY = 4096;
+    private static final Duration DEDUP_WINDOW = Duration.ofMinutes(10);
+
+    private final RachioWebhookRouter router;
+    private final Queue<RachioWebhookEvent> queue = new ConcurrentLinkedQueue<>();
+    // Parked events released by a registering handler, delivered before anything still in the queue
+    private final Queue<RachioWebhookEvent> replay = new ConcurrentLinkedQueue<>();
+    private final RachioWebhookDeduplicator deduplicator = new RachioWebhookDeduplicator(DEDUP_CAPACITY,
+            DEDUP_WINDOW);
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    @Activate
+    public RachioWebhookQueue(@Reference RachioWebhookRouter router) {
+        this.router = router;
+        consumer = new Thread(this::consume, "OH-binding-rachio-webhook");
+        consumer.setDaemon(true);
+        consumer.start();
+        router.setReplay(this::requeue);
+    }
+
+    @Deactivate
+    public void deactivate() {
+        router.setReplay(null);
+        running = false;
+        consumer.interrupt();
+        replay.clear();
+        if (!queue.isEmpty()) {
+            logger.debug("Discarding {} queued webhook events on shutdown", depth.get());
+        }
+        queue.clear();
+        depth.set(0);
+    }
+
+    /**
+     * Queue an event for processing, returns false if the queue is full and the event was dropped.
+     * Duplicates of recently accepted events count as accepted without being queued.
+     */
+    public boolean offer(RachioWebhookEvent event) {
+        // Reserve a slot before the event is remembered, a dropped event must not turn its redelivery into
+        // a duplicate
+        if (depth.incrementAndGet() > MAX_QUEUE_SIZE) {
+            depth.decrementAndGet();
+            long dropped = droppedCount.incrementAndGet();
+            logger.warn("Webhook queue full ({} events), dropping event for device {} ({} dropped so far)",
+                    MAX_QUEUE_SIZE, event.deviceId, dropped);
+            return false;
+        }
+        if (deduplicator.isDuplicate(event)) {
+            depth.decrementAndGet();
+            logger.debug("Ignoring duplicate webhook event {} for device {}", event.eventType, event.deviceId);
+            return true;
+        }
+        queue.offer(event);
+        acceptedCount.incrementAndGet();
+        LockSupport.unpark(consumer);
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    public long getDuplicateCount() {
+        return deduplicator.getDuplicateCount();
+    }
+
+    private void requeue(RachioWebhookEvent event) {
+        replay.offer(event);
+        LockSupport.unpark(consumer);
+    }
+
+    private void consume() {
+        while (running) {
+            RachioWebhookEvent event = replay.poll();
+            if (event != null) {
+                dispatch(event, true);
+                continue;
+            }
+            event = queue.poll();
+            if (event == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            depth.decrementAndGet();
+            dispatch(event, false);
+        }
+    }
+
+    private void dispatch(RachioWebhookEvent event, boolean replayed) {
+        try {
+            RachioHandler handler = router.routeOrPark(event);
+            if (handler != null && !replayed && !replay.isEmpty()) {
+                // Its handler registered after the event was taken, the events released by that registration
+                // are older and go first
+                replay.offer(event);
+                return;
+            }
+            if (handler != null) {
+                handler.handleWebhookEvent(event);
+            } else {
+                // The owning handler may still be starting, the router keeps the event until it registers
+                logger.debug("No handler registered yet for webhook device {}, event parked", event.deviceId);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Error processing webhook event for device {}: {}", event.deviceId, e.getMessage(), e);
+        }
+        long processed = processedCount.incrementAndGet();
+        if (logger.isTraceEnabled()) {
+            logger.trace("Webhook queue: depth={}, processed={}, dropped={}", depth.get(), processed,
+                    droppedCount.get());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.openhab.binding.rachio.internal.api;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioWebhookEvent;
+import org.openhab.binding.rachio.internal.handler.RachioHandler;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioWebhookRouter} maps device ids to the handler owning them, so a webhook is routed with
+ * a single map lookup. Handlers register all devices of their account as soon as they know them.
+ * Events arriving for a device nobody has registered yet are parked for a short time and handed back to
+ * the webhook queue once the owning handler registers, so no event is lost while things are starting up
+ * and the queue's consumer still applies them in order. Lookups that park and registrations take the same
+ * lock, so an event cannot be parked after its handler registered.
+ * Zone photos are routed the same way, by the image id taken from the zone's image URL.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@Component(service = RachioWebhookRouter.class)
+@NonNullByDefault
+public class RachioWebhookRouter {
+    private final Logger logger = LoggerFactory.getLogger(RachioWebhookRouter.class);
+
+    private static final int MAX_PENDING_EVENTS = 100;
+    private static final Duration PENDING_EVENT_TTL = Duration.ofMinutes(1);
+
+    private final Map<String, RachioHandler> deviceRoutes = new ConcurrentHashMap<>();
+    private final Map<String, RachioHandler> imageRoutes = new ConcurrentHashMap<>();
+    private final Deque<PendingEvent> pendingEvents = new ArrayDeque<>();
+    private @Nullable Consumer<RachioWebhookEvent> replay;
+
+    private static class PendingEvent {
+        final RachioWebhookEvent event;
+        final Instant receivedAt = Instant.now();
+
+        PendingEvent(RachioWebhookEvent event) {
+            this.event = event;
+        }
+    }
+
+    /**
+     * Set where parked events go once their handler registers, null keeps them parked
+     */
+    public void setReplay(@Nullable Consumer<RachioWebhookEvent> replay) {
+        synchronized (pendingEvents) {
+            this.replay = replay;
+        }
+    }
+
+    /**
+     * Register (or replace) the devices owned by a handler and hand the events parked for them back for
+     * delivery
+     */
+    public void register(RachioHandler handler, Collection<String> deviceIds) {
+        synchronized (pendingEvents) {
+            deviceRoutes.entrySet().removeIf(e -> e.getValue() == handler && !deviceIds.contains(e.getKey()));
+            deviceIds.forEach(id -> deviceRoutes.put(id, handler));
+            Consumer<RachioWebhookEvent> target = replay;
+            if (target != null) {
+                for (RachioWebhookEvent event : takePendingEvents(deviceIds)) {
+                    logger.debug("Releasing parked webhook event {} for device {}", event.eventType,
+                            event.deviceId);
+                    target.accept(event);
+                }
+            }
+        }
+        logger.debug("Webhook routes for {}: {} devices", handler.getThing().getUID(), deviceIds.size());
+    }
+
+    /**
+     * Register (or replace) the images owned by a handler
+     */
+    public void registerImages(RachioHandler handler, Collection<String> imageIds) {
+        imageRoutes.entrySet().removeIf(e -> e.getValue() == handler && !imageIds.contains(e.getKey()));
+        imageIds.forEach(id -> imageRoutes.put(id, handler));
+    }
+
+    public void unregister(RachioHandler handler) {
+        deviceRoutes.values().removeIf(h -> h == handler);
+        imageRoutes.values().removeIf(h -> h == handler);
+    }
+
+    /**
+     * Find the handler whose account owns an image
+     */
+    public @Nullable RachioHandler routeImage(String imageId) {
+        return imageRoutes.get(imageId);
+    }
+
+    /**
+     * Find the handler for an event by its device id. An event no handler has claimed yet is parked until
+     * one registers, the oldest parked event is dropped once the buffer is full.
+     *
+     * @return the handler, or null if the event was parked
+     */
+    public @Nullable RachioHandler routeOrPark(RachioWebhookEvent event) {
+        synchronized (pendingEvents) {
+            RachioHandler handler = deviceRoutes.get(event.deviceId);
+            if (handler != null) {
+                return handler;
+            }
+            expirePendingEvents();
+            if (pendingEvents.size() >= MAX_PENDING_EVENTS) {
+                PendingEvent dropped = pendingEvents.removeFirst();
+                logger.debug("Parked webhook buffer full, dropping event for device {}", dropped.event.deviceId);
+            }
+            pendingEvents.addLast(new PendingEvent(event));
+            return null;
+        }
+    }
+
+    private List<RachioWebhookEvent> takePendingEvents(Collection<String> deviceIds) {
+        List<RachioWebhookEvent> events = new ArrayList<>();
+        expirePendingEvents();
+        Iterator<PendingEvent> iterator = pendingEvents.iterator();
+        while (iterator.hasNext()) {
+            PendingEvent pending = iterator.next();
+            if (deviceIds.contains(pending.event.deviceId)) {
+                events.add(pending.event);
+                iterator.remove();
+            }
+        }
+        return events;
+    }
+
+    private void expirePendingEvents() {
+        Instant cutoff = Instant.now().minus(PENDING_EVENT_TTL);
+        while (!pendingEvents.isEmpty() && pendingEvents.peekFirst().receivedAt.isBefore(cutoff)) {
+            pendingEvents.removeFirst();
+        }
+    }
+}
@@ -5,7 +5,8 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
- * Represents device event summary from Rachio API
+ * Represents device event summary from Rachio API. Instances may be served to several callers from the response cache and
+ * must not be modified.
  */
 @NonNullByDefault
 public class RachioEventSummary {
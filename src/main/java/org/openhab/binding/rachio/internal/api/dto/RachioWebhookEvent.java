@@ -8,6 +8,8 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 @NonNullByDefault
 public class RachioWebhookEvent {
+    public String id = "";
+    public String externalId = "";
     public String eventType = "";
     public String deviceId = "";
     public String timestamp = "";
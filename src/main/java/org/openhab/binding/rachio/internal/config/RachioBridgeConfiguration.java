@@ -7,5 +7,7 @@ public class RachioBridgeConfiguration {
     public String apiKey = "";
     public String webhookId = "";
     public int refreshInterval = 60;
+    /** Lifetime of the shared account snapshot in seconds, never shorter than {@link #refreshInterval} */
+    public int cacheTtl = 60;
     public String webhookUrl = "";
 }
@@ -0,0 +1,165 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.RachioHttp;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
+import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioAccountCache} holds the account topology (/person/info) of one thing. It refreshes
+ * the snapshot in the background shortly before it expires, so readers never wait for the API, and
+ * compares every new snapshot with the previous one so listeners only hear about the devices and zones
+ * that were added, removed or changed.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioAccountCache {
+    private final Logger logger = LoggerFactory.getLogger(RachioAccountCache.class);
+
+    // Refresh once this share of the time-to-live has passed
+    private static final double REFRESH_AHEAD_FACTOR = 0.8;
+
+    /**
+     * Receives the result of each refresh
+     */
+    public interface Listener {
+        /**
+         * Called after every successful refresh that changed something, and after the first one
+         */
+        void accountChanged(RachioAccountSnapshot snapshot, RachioAccountDiff diff);
+
+        /**
+         * Called after every successful refresh, whether or not something changed
+         */
+        default void refreshSucceeded(RachioAccountSnapshot snapshot) {
+        }
+
+        default void refreshFailed(RachioException e) {
+        }
+    }
+
+    private final RachioHttp api;
+    private final String thingId;
+    private final ScheduledExecutorService scheduler;
+    private final Duration ttl;
+    private final Listener listener;
+
+    private final Object refreshLock = new Object();
+    private volatile @Nullable RachioAccountSnapshot snapshot;
+    private volatile boolean invalidated = false;
+    private @Nullable ScheduledFuture<?> refreshJob;
+    private @Nullable ScheduledFuture<?> invalidationJob;
+
+    public RachioAccountCache(RachioHttp api, String thingId, ScheduledExecutorService scheduler, Duration ttl,
+            Listener listener) {
+        this.api = api;
+        this.thingId = thingId;
+        this.scheduler = scheduler;
+        this.ttl = ttl;
+        this.listener = listener;
+    }
+
+    /**
+     * Start refreshing ahead of expiry, the first refresh runs right away
+     */
+    public synchronized void start() {
+        stop();
+        long period = Math.max(1, (long) (ttl.toSeconds() * REFRESH_AHEAD_FACTOR));
+        refreshJob = scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, period, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stop() {
+        ScheduledFuture<?> job = refreshJob;
+        if (job != null) {
+            job.cancel(true);
+        }
+        refreshJob = null;
+        job = invalidationJob;
+        if (job != null) {
+            job.cancel(true);
+        }
+        invalidationJob = null;
+    }
+
+    /**
+     * Get the current snapshot. Only if there is none yet, or it was invalidated or has expired because
+     * background refreshes failed, the caller fetches a new one; if that fails the stale one is returned.
+     */
+    public @Nullable RachioAccountSnapshot get() {
+        RachioAccountSnapshot current = snapshot;
+        if (current != null && !invalidated && !current.isExpired(ttl)) {
+            return current;
+        }
+
+        synchronized (refreshLock) {
+            // Another caller may have refreshed while we were waiting for the lock
+            current = snapshot;
+            if (current != null && !invalidated && !current.isExpired(ttl)) {
+                return current;
+            }
+            try {
+                return refresh();
+            } catch (RachioException e) {
+                logger.debug("Failed to refresh account of {}: {}", thingId, e.getMessage());
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Fetch the account now and notify the listener of what changed
+     */
+    public RachioAccountSnapshot refresh() throws RachioException {
+        synchronized (refreshLock) {
+            RachioPerson person = api.getPerson(thingId);
+            if (person == null) {
+                throw new RachioException("Empty response for person info");
+            }
+
+            RachioAccountSnapshot previous = snapshot;
+            RachioAccountSnapshot current = new RachioAccountSnapshot(person, Instant.now());
+            snapshot = current;
+            invalidated = false;
+
+            RachioAccountDiff diff = RachioAccountDiff.between(previous, current);
+            if (previous == null || !diff.isEmpty()) {
+                logger.debug("Account of {} changed: {}", thingId, diff);
+                listener.accountChanged(current, diff);
+            }
+            listener.refreshSucceeded(current);
+            return current;
+        }
+    }
+
+    /**
+     * Mark the snapshot stale, e.g. after a command, and schedule one refresh after the given delay;
+     * invalidations arriving while a refresh is pending share it
+     */
+    public synchronized void invalidate(Duration delay) {
+        invalidated = true;
+        ScheduledFuture<?> job = invalidationJob;
+        if (job != null && !job.isDone()) {
+            return;
+        }
+        invalidationJob = scheduler.schedule(this::refreshQuietly, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RachioException e) {
+            logger.debug("Background refresh of account {} failed: {}", thingId, e.getMessage());
+            listener.refreshFailed(e);
+        }
+    }
+}
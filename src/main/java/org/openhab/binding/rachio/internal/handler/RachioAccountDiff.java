@@ -0,0 +1,138 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
+
+/**
+ * The {@link RachioAccountDiff} lists the devices and zones that were added, removed or changed between
+ * two account snapshots. A device counts as changed if one of its own attributes changed; zone changes
+ * are reported separately so a renamed zone does not touch its controller.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioAccountDiff {
+    private final Set<String> addedDevices = new HashSet<>();
+    private final Set<String> removedDevices = new HashSet<>();
+    private final Set<String> changedDevices = new HashSet<>();
+    private final Set<String> addedZones = new HashSet<>();
+    private final Set<String> removedZones = new HashSet<>();
+    private final Set<String> changedZones = new HashSet<>();
+
+    /**
+     * Compare two snapshots, every device and zone of the current one counts as added if there is no previous
+     */
+    public static RachioAccountDiff between(@Nullable RachioAccountSnapshot previous, RachioAccountSnapshot current) {
+        RachioAccountDiff diff = new RachioAccountDiff();
+        for (RachioPerson.Device device : current.getDevices()) {
+            RachioPerson.Device old = previous != null ? previous.getDevice(device.id) : null;
+            if (old == null) {
+                diff.addedDevices.add(device.id);
+            } else if (!sameDevice(old, device)) {
+                diff.changedDevices.add(device.id);
+            }
+            if (device.zones != null) {
+                for (RachioPerson.Zone zone : device.zones) {
+                    RachioPerson.Zone oldZone = previous != null ? previous.getZone(zone.id) : null;
+                    if (oldZone == null) {
+                        diff.addedZones.add(zone.id);
+                    } else if (!sameZone(oldZone, zone)) {
+                        diff.changedZones.add(zone.id);
+                    }
+                }
+            }
+        }
+        if (previous != null) {
+            for (RachioPerson.Device device : previous.getDevices()) {
+                if (current.getDevice(device.id) == null) {
+                    diff.removedDevices.add(device.id);
+                }
+                if (device.zones != null) {
+                    for (RachioPerson.Zone zone : device.zones) {
+                        if (current.getZone(zone.id) == null) {
+                            diff.removedZones.add(zone.id);
+                        }
+                    }
+                }
+            }
+        }
+        return diff;
+    }
+
+    public boolean isEmpty() {
+        return addedDevices.isEmpty() && removedDevices.isEmpty() && changedDevices.isEmpty() && addedZones.isEmpty()
+                && removedZones.isEmpty() && changedZones.isEmpty();
+    }
+
+    /**
+     * Check whether devices or zones were added or removed, as opposed to only changed
+     */
+    public boolean isStructural() {
+        return !addedDevices.isEmpty() || !removedDevices.isEmpty() || !addedZones.isEmpty()
+                || !removedZones.isEmpty();
+    }
+
+    /**
+     * Check whether a device was added, removed or changed
+     */
+    public boolean affectsDevice(String deviceId) {
+        return addedDevices.contains(deviceId) || removedDevices.contains(deviceId)
+                || changedDevices.contains(deviceId);
+    }
+
+    /**
+     * Check whether a zone was added, removed or changed
+     */
+    public boolean affectsZone(String zoneId) {
+        return addedZones.contains(zoneId) || removedZones.contains(zoneId) || changedZones.contains(zoneId);
+    }
+
+    public Set<String> getAddedDevices() {
+        return Collections.unmodifiableSet(addedDevices);
+    }
+
+    public Set<String> getRemovedDevices() {
+        return Collections.unmodifiableSet(removedDevices);
+    }
+
+    public Set<String> getChangedDevices() {
+        return Collections.unmodifiableSet(changedDevices);
+    }
+
+    public Set<String> getAddedZones() {
+        return Collections.unmodifiableSet(addedZones);
+    }
+
+    public Set<String> getRemovedZones() {
+        return Collections.unmodifiableSet(removedZones);
+    }
+
+    public Set<String> getChangedZones() {
+        return Collections.unmodifiableSet(changedZones);
+    }
+
+    private static boolean sameDevice(RachioPerson.Device a, RachioPerson.Device b) {
+        return a.on == b.on && Objects.equals(a.name, b.name) && Objects.equals(a.status, b.status)
+                && Objects.equals(a.serialNumber, b.serialNumber) && Objects.equals(a.model, b.model)
+                && Objects.equals(a.timeZone, b.timeZone) && a.latitude == b.latitude
+                && a.longitude == b.longitude;
+    }
+
+    private static boolean sameZone(RachioPerson.Zone a, RachioPerson.Zone b) {
+        return a.zoneNumber == b.zoneNumber && a.enabled == b.enabled && a.runtime == b.runtime
+                && a.maxRuntime == b.maxRuntime && Objects.equals(a.name, b.name)
+                && Objects.equals(a.imageUrl, b.imageUrl);
+    }
+
+    @Override
+    public String toString() {
+        return "RachioAccountDiff{devices +" + addedDevices + " -" + removedDevices + " ~" + changedDevices
+                + ", zones +" + addedZones + " -" + removedZones + " ~" + changedZones + '}';
+    }
+}
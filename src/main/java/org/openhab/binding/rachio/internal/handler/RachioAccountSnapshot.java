@@ -0,0 +1,89 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
+
+/**
+ * The {@link RachioAccountSnapshot} is an immutable view of one Rachio account as returned by
+ * /person/info, indexed by device and zone id so child handlers can read their state without
+ * calling the API themselves.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioAccountSnapshot {
+    private final RachioPerson person;
+    private final Instant fetchedAt;
+    private final Map<String, RachioPerson.Device> devices;
+    private final Map<String, RachioPerson.Zone> zones;
+    private final Map<String, String> zoneDevices;
+
+    public RachioAccountSnapshot(RachioPerson person, Instant fetchedAt) {
+        this.person = person;
+        this.fetchedAt = fetchedAt;
+
+        Map<String, RachioPerson.Device> deviceMap = new LinkedHashMap<>();
+        Map<String, RachioPerson.Zone> zoneMap = new HashMap<>();
+        Map<String, String> zoneDeviceMap = new HashMap<>();
+        List<RachioPerson.Device> personDevices = person.devices;
+        if (personDevices != null) {
+            for (RachioPerson.Device device : personDevices) {
+                deviceMap.put(device.id, device);
+                List<RachioPerson.Zone> deviceZones = device.zones;
+                if (deviceZones != null) {
+                    for (RachioPerson.Zone zone : deviceZones) {
+                        zoneMap.put(zone.id, zone);
+                        zoneDeviceMap.put(zone.id, device.id);
+                    }
+                }
+            }
+        }
+        this.devices = Collections.unmodifiableMap(deviceMap);
+        this.zones = Collections.unmodifiableMap(zoneMap);
+        this.zoneDevices = Collections.unmodifiableMap(zoneDeviceMap);
+    }
+
+    public RachioPerson getPerson() {
+        return person;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Check whether this snapshot is older than the given time-to-live
+     */
+    public boolean isExpired(Duration ttl) {
+        return Duration.between(fetchedAt, Instant.now()).compareTo(ttl) > 0;
+    }
+
+    public Collection<RachioPerson.Device> getDevices() {
+        return devices.values();
+    }
+
+    public RachioPerson.@Nullable Device getDevice(String deviceId) {
+        return devices.get(deviceId);
+    }
+
+    public RachioPerson.@Nullable Zone getZone(String zoneId) {
+        return zones.get(zoneId);
+    }
+
+    /**
+     * Get the id of the controller a zone belongs to
+     */
+    public @Nullable String getDeviceIdForZone(String zoneId) {
+        return zoneDevices.get(zoneId);
+    }
+}
@@ -1,138 +1,167 @@
-package org.openhab.binding.rachio.internal.handler;
-
-import static org.openhab.binding.rachio.internal.RachioBindingConstants.*;
-
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-
-import org.eclipse.jdt.annotation.NonNullByDefault;
-import org.eclipse.jdt.annotation.Nullable;
-import org.openhab.binding.rachio.internal.api.RachioApiException;
-import org.openhab.binding.rachio.internal.api.RachioHttp;
-import org.openhab.core.thing.Bridge;
-import org.openhab.core.thing.ChannelUID;
-import org.openhab.core.thing.ThingStatus;
-import org.openhab.core.thing.ThingStatusDetail;
-import org.openhab.core.thing.binding.BaseBridgeHandler;
-import org.openhab.core.types.Command;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-
-/**
- * The {@link RachioBridgeHandler} is responsible for handling commands, which are
- * sent to one of the channels.
- *
- * @author Damion Boyett - Initial contribution
- */
-@NonNullByDefault
-public class RachioBridgeHandler extends BaseBridgeHandler {
-    private final Logger logger = LoggerFactory.getLogger(RachioBridgeHandler.class);
-
-    private @Nullable RachioHttp localApi;
-    private final Gson gson = new Gson();
-    private @Nullable ScheduledFuture<?> refreshJob;
-
-    public RachioBridgeHandler(Bridge bridge) {
-        super(bridge);
-    }
-
-    @Override
-    public void handleCommand(ChannelUID channelUID, Command command) {
-        // No commands to handle for bridge
-    }
-
-    @Override
-    public void initialize() {
-        logger.debug("Initializing Rachio bridge handler.");
-
-        String apiKey = (String) getConfig().get(API_KEY);
-        if (apiKey == null || apiKey.trim().isEmpty()) {
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "API Key is required");
-            return;
-        }
-
-        localApi = new RachioHttp(apiKey, gson);
-        scheduler.execute(this::initializeBridge);
-    }
-
-    private void initializeBridge() {
-        RachioHttp api = localApi;
-        if (api == null) {
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "API not initialized");
-            return;
-        }
-
-        try {
-            JsonObject personInfo = api.getPerson();
-            logger.debug("Successfully connected to Rachio API for user: {}", 
-                personInfo.get("username").getAsString());
-            
-            updateStatus(ThingStatus.ONLINE);
-            startRefreshJob();
-        } catch (RachioApiException e) {
-            logger.debug("Failed to initialize Rachio bridge: {}", e.getMessage(), e);
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
-        }
-    }
-
-    private void startRefreshJob() {
-        ScheduledFuture<?> job = refreshJob;
-        if (job != null && !job.isCancelled()) {
-            job.cancel(false);
-        }
-
-        refreshJob = scheduler.scheduleWithFixedDelay(this::refreshBridge, 1, 300, TimeUnit.SECONDS);
-    }
-
-    private void refreshBridge() {
-        RachioHttp api = localApi;
-        if (api == null || thing.getStatus() != ThingStatus.ONLINE) {
-            return;
-        }
-
-        try {
-            // Simple API call to verify connectivity
-            api.getPerson();
-        } catch (RachioApiException e) {
-            logger.debug("Rachio bridge refresh failed: {}", e.getMessage());
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
-        }
-    }
-
-    public @Nullable RachioHttp getApi() {
-        return localApi;
-    }
-
-    public @Nullable JsonObject getDevice(String deviceId) {
-        RachioHttp api = localApi;
-        if (api == null) {
-            return null;
-        }
-
-        try {
-            return api.getDevice(deviceId);
-        } catch (RachioApiException e) {
-            logger.debug("Failed to get device {}: {}", deviceId, e.getMessage());
-            return null;
-        }
-    }
-
-    public void webHookEvent(org.openhab.binding.rachio.internal.api.RachioEvent event) {
-        logger.debug("Received webhook event: {}", event.getType());
-        // Handle webhook events here - you can update device/zone status based on events
-    }
-
-    @Override
-    public void dispose() {
-        ScheduledFuture<?> job = refreshJob;
-        if (job != null && !job.isCancelled()) {
-            job.cancel(true);
-        }
-        refreshJob = null;
-        localApi = null;
-        super.dispose();
-    }
-}
+package org.openhab.binding.rachio.internal.handler;
+
+import java.time.Duration;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.RachioHttp;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
+import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
+import org.openhab.binding.rachio.internal.config.RachioBridgeConfiguration;
+import org.openhab.core.thing.Bridge;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingStatus;
+import org.openhab.core.thing.ThingStatusDetail;
+import org.openhab.core.thing.binding.BaseBridgeHandler;
+import org.openhab.core.thing.binding.ThingHandler;
+import org.openhab.core.types.Command;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioBridgeHandler} is responsible for handling commands, which are
+ * sent to one of the channels. It owns the account snapshot shared by all device
+ * and zone things below it.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioBridgeHandler extends BaseBridgeHandler implements RachioAccountCache.Listener {
+    private final Logger logger = LoggerFactory.getLogger(RachioBridgeHandler.class);
+
+    // Give the controller a moment to apply a command before re-reading the account
+    private static final Duration INVALIDATION_DELAY = Duration.ofSeconds(3);
+
+    private final RachioHttp rachioHttp;
+    private @Nullable RachioHttp localApi;
+    private @Nullable RachioAccountCache accountCache;
+    private String thingId = "";
+
+    public RachioBridgeHandler(Bridge bridge, RachioHttp rachioHttp) {
+        super(bridge);
+        this.rachioHttp = rachioHttp;
+    }
+
+    @Override
+    public void handleCommand(ChannelUID channelUID, Command command) {
+        // No commands to handle for bridge
+    }
+
+    @Override
+    public void initialize() {
+        logger.debug("Initializing Rachio bridge handler.");
+        RachioBridgeConfiguration config = getConfigAs(RachioBridgeConfiguration.class);
+
+        String apiKey = config.apiKey;
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "API Key is required");
+            return;
+        }
+
+        // Snapshots are kept at least as long as the configured refresh interval, the cache refreshes them
+        // in the background before they expire
+        int refreshInterval = Math.max(30, config.refreshInterval);
+        Duration snapshotTtl = Duration.ofSeconds(Math.max(Math.max(10, config.cacheTtl), refreshInterval));
+
+        thingId = getThing().getUID().toString();
+        rachioHttp.registerThing(thingId, apiKey);
+        localApi = rachioHttp;
+        RachioAccountCache cache = new RachioAccountCache(rachioHttp, thingId, scheduler, snapshotTtl, this);
+        accountCache = cache;
+        cache.start();
+    }
+
+    @Override
+    public void accountChanged(RachioAccountSnapshot snapshot, RachioAccountDiff diff) {
+        notifyChildHandlers(snapshot, diff);
+    }
+
+    @Override
+    public void refreshSucceeded(RachioAccountSnapshot snapshot) {
+        // Also recovers from a failed refresh when the account did not change in between
+        if (thing.getStatus() != ThingStatus.ONLINE) {
+            logger.debug("Successfully connected to Rachio API for user: {}", snapshot.getPerson().username);
+            updateStatus(ThingStatus.ONLINE);
+        }
+    }
+
+    @Override
+    public void refreshFailed(RachioException e) {
+        updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
+    }
+
+    /**
+     * Pass a new snapshot on to the child handlers whose device or zone was added, removed or changed
+     */
+    private void notifyChildHandlers(RachioAccountSnapshot current, RachioAccountDiff diff) {
+        for (Thing child : getThing().getThings()) {
+            ThingHandler handler = child.getHandler();
+            if (handler instanceof RachioDeviceHandler) {
+                RachioDeviceHandler deviceHandler = (RachioDeviceHandler) handler;
+                String deviceId = deviceHandler.getDeviceId();
+                if (deviceId == null || diff.affectsDevice(deviceId)) {
+                    deviceHandler.snapshotUpdated(current);
+                }
+            } else if (handler instanceof RachioZoneHandler) {
+                RachioZoneHandler zoneHandler = (RachioZoneHandler) handler;
+                String zoneId = zoneHandler.getZoneId();
+                if (zoneId == null || diff.affectsZone(zoneId)) {
+                    zoneHandler.snapshotUpdated(current);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the current account snapshot, it is refreshed in the background before it expires. Only if
+     * that failed or the snapshot was invalidated, the caller waits for a refresh.
+     */
+    public @Nullable RachioAccountSnapshot getSnapshot() {
+        RachioAccountCache cache = accountCache;
+        return cache != null ? cache.get() : null;
+    }
+
+    /**
+     * Mark the snapshot stale after a command and schedule one refresh; invalidations arriving
+     * while a refresh is pending share it.
+     */
+    public void invalidateSnapshot() {
+        RachioAccountCache cache = accountCache;
+        if (cache != null) {
+            cache.invalidate(INVALIDATION_DELAY);
+        }
+    }
+
+    public @Nullable RachioHttp getApi() {
+        return localApi;
+    }
+
+    public String getThingId() {
+        return thingId;
+    }
+
+    public RachioPerson.@Nullable Device getDevice(String deviceId) {
+        RachioAccountSnapshot current = getSnapshot();
+        return current != null ? current.getDevice(deviceId) : null;
+    }
+
+    public void webHookEvent(org.openhab.binding.rachio.internal.api.RachioEvent event) {
+        logger.debug("Received webhook event: {}", event.getType());
+        // Handle webhook events here - you can update device/zone status based on events
+    }
+
+    @Override
+    public void dispose() {
+        RachioAccountCache cache = accountCache;
+        if (cache != null) {
+            cache.stop();
+        }
+        accountCache = null;
+        if (localApi != null) {
+            rachioHttp.unregisterThing(thingId);
+        }
+        localApi = null;
+        super.dispose();
+    }
+}
@@ -0,0 +1,169 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import static org.openhab.binding.rachio.internal.RachioBindingConstants.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * The {@link RachioChannelIndex} holds the channel UIDs of all devices and zones of an account, created
+ * once per account structure, and maps each channel UID back to the device, zone and channel it belongs
+ * to. Instances are immutable and replaced as a whole when devices or zones are added or removed.
+ * Channel ids are {@code <deviceId>_<channelId>} for devices and {@code <deviceId>_<zoneId>_<channelId>}
+ * for zones.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+class RachioChannelIndex {
+    static final String CHANNEL_POWER = "power";
+    static final String CHANNEL_LAST_DURATION = "lastDuration";
+    static final String CHANNEL_LAST_EVENT = "lastEvent";
+    static final String CHANNEL_LAST_EVENT_TIME = "lastEventTime";
+    private static final String SEPARATOR = "_";
+
+    private static final List<String> DEVICE_CHANNELS = List.of(STATUS, CHANNEL_POWER, STOP_WATERING,
+            CHANNEL_LAST_EVENT, CHANNEL_LAST_EVENT_TIME);
+    private static final List<String> ZONE_CHANNELS = List.of(ZONE_NAME, ZONE_ENABLED, ZONE_RUNTIME, ZONE_STATUS,
+            CHANNEL_LAST_DURATION, RUN_ZONE);
+
+    static final RachioChannelIndex EMPTY = new RachioChannelIndex(Map.of(), Map.of(), Map.of(), Map.of());
+
+    /**
+     * Device, zone and channel a channel UID belongs to; zoneId is null for device channels
+     */
+    static final class ChannelRef {
+        final String deviceId;
+        final @Nullable String zoneId;
+        final String channelId;
+
+        ChannelRef(String deviceId, @Nullable String zoneId, String channelId) {
+            this.deviceId = deviceId;
+            this.zoneId = zoneId;
+            this.channelId = channelId;
+        }
+    }
+
+    private final Map<String, List<String>> structure;
+    private final Map<String, Map<String, ChannelUID>> deviceChannels;
+    private final Map<String, Map<String, ChannelUID>> zoneChannels;
+    private final Map<ChannelUID, ChannelRef> channelRefs;
+
+    private RachioChannelIndex(Map<String, List<String>> structure, Map<String, Map<String, ChannelUID>> deviceChannels,
+            Map<String, Map<String, ChannelUID>> zoneChannels, Map<ChannelUID, ChannelRef> channelRefs) {
+        this.structure = structure;
+        this.deviceChannels = deviceChannels;
+        this.zoneChannels = zoneChannels;
+        this.channelRefs = channelRefs;
+    }
+
+    static RachioChannelIndex build(ThingUID thingUID, RachioPerson person) {
+        Map<String, List<String>> structure = structureOf(person);
+        Map<String, Map<String, ChannelUID>> deviceChannels = new HashMap<>();
+        Map<String, Map<String, ChannelUID>> zoneChannels = new HashMap<>();
+        Map<ChannelUID, ChannelRef> channelRefs = new HashMap<>();
+
+        structure.forEach((deviceId, zoneIds) -> {
+            Map<String, ChannelUID> channels = new HashMap<>();
+            for (String channelId : DEVICE_CHANNELS) {
+                ChannelUID channelUID = new ChannelUID(thingUID, deviceId + SEPARATOR + channelId);
+                channels.put(channelId, channelUID);
+                channelRefs.put(channelUID, new ChannelRef(deviceId, null, channelId));
+            }
+            deviceChannels.put(deviceId, Map.copyOf(channels));
+
+            for (String zoneId : zoneIds) {
+                channels = new HashMap<>();
+                for (String channelId : ZONE_CHANNELS) {
+                    ChannelUID channelUID = new ChannelUID(thingUID,
+                            deviceId + SEPARATOR + zoneId + SEPARATOR + channelId);
+                    channels.put(channelId, channelUID);
+                    channelRefs.put(channelUID, new ChannelRef(deviceId, zoneId, channelId));
+                }
+                zoneChannels.put(zoneId, Map.copyOf(channels));
+            }
+        });
+        return new RachioChannelIndex(structure, Map.copyOf(deviceChannels), Map.copyOf(zoneChannels),
+                Map.copyOf(channelRefs));
+    }
+
+    /**
+     * Check whether the account still has exactly the devices and zones this index was built for
+     */
+    boolean matches(RachioPerson person) {
+        return structure.equals(structureOf(person));
+    }
+
+    @Nullable
+    ChannelUID getDeviceChannel(String deviceId, String channelId) {
+        Map<String, ChannelUID> channels = deviceChannels.get(deviceId);
+        return channels != null ? channels.get(channelId) : null;
+    }
+
+    @Nullable
+    ChannelUID getZoneChannel(String zoneId, String channelId) {
+        Map<String, ChannelUID> channels = zoneChannels.get(zoneId);
+        return channels != null ? channels.get(channelId) : null;
+    }
+
+    /**
+     * All channels of a zone, none if the zone is not known
+     */
+    Collection<ChannelUID> getZoneChannels(String zoneId) {
+        Map<String, ChannelUID> channels = zoneChannels.get(zoneId);
+        return channels != null ? channels.values() : List.of();
+    }
+
+    /**
+     * Zones of a device, none if the device is not known
+     */
+    List<String> getZoneIds(String deviceId) {
+        return structure.getOrDefault(deviceId, List.of());
+    }
+
+    /**
+     * Map a channel UID to its device, zone and channel. Channels this index does not know, e.g. because
+     * the account has not been fetched yet, are resolved from the channel id itself.
+     */
+    @Nullable
+    ChannelRef lookup(ChannelUID channelUID) {
+        ChannelRef ref = channelRefs.get(channelUID);
+        return ref != null ? ref : parse(channelUID);
+    }
+
+    private static @Nullable ChannelRef parse(ChannelUID channelUID) {
+        // Neither Rachio ids nor channel ids contain the separator
+        String[] parts = channelUID.getId().split(SEPARATOR);
+        if (parts.length == 2 && DEVICE_CHANNELS.contains(parts[1])) {
+            return new ChannelRef(parts[0], null, parts[1]);
+        } else if (parts.length == 3 && ZONE_CHANNELS.contains(parts[2])) {
+            return new ChannelRef(parts[0], parts[1], parts[2]);
+        }
+        return null;
+    }
+
+    private static Map<String, List<String>> structureOf(RachioPerson person) {
+        Map<String, List<String>> structure = new HashMap<>();
+        if (person.devices != null) {
+            for (RachioPerson.Device device : person.devices) {
+                List<String> zoneIds = new ArrayList<>();
+                if (device.zones != null) {
+                    for (RachioPerson.Zone zone : device.zones) {
+                        zoneIds.add(zone.id);
+                    }
+                }
+                structure.put(device.id, List.copyOf(zoneIds));
+            }
+        }
+        return Map.copyOf(structure);
+    }
+}
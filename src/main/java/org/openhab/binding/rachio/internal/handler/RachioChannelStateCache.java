@@ -0,0 +1,65 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link RachioChannelStateCache} remembers the last state published per channel of a thing, so
+ * polls and webhooks only post updates to the event bus when a value actually changed.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+class RachioChannelStateCache {
+    private final Map<ChannelUID, State> lastPublished = new ConcurrentHashMap<>();
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong suppressedCount = new AtomicLong();
+
+    /**
+     * Record a new state for a channel
+     *
+     * @return true if the state differs from the last published one and must be posted
+     */
+    boolean update(ChannelUID channelUID, State state) {
+        State previous = lastPublished.put(channelUID, state);
+        if (state.equals(previous)) {
+            suppressedCount.incrementAndGet();
+            return false;
+        }
+        publishedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Get the state published last for a channel
+     */
+    @Nullable
+    State get(ChannelUID channelUID) {
+        return lastPublished.get(channelUID);
+    }
+
+    /**
+     * Forget the state of a channel, so its next update is published even if unchanged
+     */
+    void invalidate(ChannelUID channelUID) {
+        lastPublished.remove(channelUID);
+    }
+
+    void clear() {
+        lastPublished.clear();
+    }
+
+    long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+}
@@ -0,0 +1,189 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.RachioCommandExecutor;
+import org.openhab.binding.rachio.internal.api.RachioHttp;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioCommandBatcher} collects the zone starts a controller receives within a short window
+ * and sends them as one /zone/start_multiple request, so a rule starting several zones does not issue
+ * separate requests that cancel each other on the controller. Commands are coalesced before they reach
+ * the API: a zone started twice runs once with the last duration, and a stop drops the starts still
+ * waiting for the same controller. Everything is sent on the command executor, apart from polling. The
+ * commands of one controller are sent one after the other, so a stop never overtakes a start that is
+ * already on its way. Each start and stop returns a future that reports whether the request reached the
+ * API, so the caller can reconcile the channels a failed command left behind.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+class RachioCommandBatcher {
+    private final Logger logger = LoggerFactory.getLogger(RachioCommandBatcher.class);
+
+    private final RachioHttp api;
+    private final String thingId;
+    private final RachioCommandExecutor executor;
+    private final Duration window;
+
+    // Zone starts waiting for the window to close, by device id
+    private final Map<String, Batch> batches = new HashMap<>();
+    // Outcome of the stop of each device that has not been sent yet
+    private final Map<String, CompletableFuture<@Nullable Void>> pendingStops = new HashMap<>();
+    // Last command of each device, the next one is sent once it finished
+    private final Map<String, CompletableFuture<@Nullable Void>> lanes = new HashMap<>();
+
+    private static class Batch {
+        final Map<String, Integer> zoneDurations = new LinkedHashMap<>();
+        final CompletableFuture<@Nullable Void> result = new CompletableFuture<>();
+        @Nullable
+        ScheduledFuture<?> job;
+    }
+
+    /**
+     * @param api client the commands are sent with
+     * @param thingId thing whose API key is used
+     * @param window time zone starts are collected, counted from the first one
+     */
+    RachioCommandBatcher(RachioHttp api, String thingId, Duration window) {
+        this.api = api;
+        this.thingId = thingId;
+        this.executor = api.getCommandExecutor();
+        this.window = window;
+    }
+
+    /**
+     * Queue a zone start, it is sent together with the other starts of the device once the window closes
+     *
+     * @return completes once the batch holding the start was sent, exceptionally with the
+     *         {@link RachioException} if that failed, or is cancelled if a stop superseded the start
+     */
+    synchronized CompletableFuture<@Nullable Void> startZone(String deviceId, String zoneId, int durationSeconds) {
+        if (durationSeconds <= 0 || durationSeconds > RachioHttp.MAX_ZONE_DURATION) {
+            throw new IllegalArgumentException("Duration must be between 1 and 3600 seconds");
+        }
+        Batch batch = batches.computeIfAbsent(deviceId, id -> new Batch());
+        // A zone started again replaces its earlier start but keeps its place in the run order
+        batch.zoneDurations.put(zoneId, durationSeconds);
+        if (batch.job == null) {
+            batch.job = executor.schedule(() -> enqueue(deviceId, "start zones of " + deviceId,
+                    () -> flush(deviceId, batch)).whenComplete((result, failure) -> complete(batch.result, failure)),
+                    window);
+        }
+        return batch.result;
+    }
+
+    /**
+     * Stop watering right away, dropping the zone starts of the device that have not been sent yet
+     *
+     * @return completes once the stop was sent, or exceptionally with the {@link RachioException}
+     */
+    CompletableFuture<@Nullable Void> stopWatering(String deviceId) {
+        CompletableFuture<@Nullable Void> stop = new CompletableFuture<>();
+        synchronized (this) {
+            Batch batch = batches.remove(deviceId);
+            ScheduledFuture<?> job = batch != null ? batch.job : null;
+            if (batch != null && job != null) {
+                job.cancel(false);
+                batch.result.cancel(false);
+                logger.debug("Stop for device {} supersedes pending zone starts {}", deviceId,
+                        batch.zoneDurations.keySet());
+            }
+            CompletableFuture<@Nullable Void> pending = pendingStops.putIfAbsent(deviceId, stop);
+            if (pending != null) {
+                // The stop still waiting to be sent covers this one
+                return pending;
+            }
+        }
+        enqueue(deviceId, "stop watering " + deviceId, () -> sendStop(deviceId)).whenComplete((result, failure) -> {
+            synchronized (this) {
+                // Normally sendStop already removed it, unless the stop never ran
+                pendingStops.remove(deviceId, stop);
+            }
+            if (failure == null) {
+                logger.info("Stopped watering for device {}", deviceId);
+            }
+            complete(stop, failure);
+        });
+        return stop;
+    }
+
+    /**
+     * Drop all commands that have not been sent yet
+     */
+    synchronized void cancelAll() {
+        for (Batch batch : batches.values()) {
+            ScheduledFuture<?> job = batch.job;
+            if (job != null) {
+                job.cancel(false);
+            }
+            batch.result.cancel(false);
+        }
+        batches.clear();
+    }
+
+    /**
+     * Send a command once the previous command of the device finished, whatever its outcome
+     */
+    private synchronized CompletableFuture<@Nullable Void> enqueue(String deviceId, String description,
+            RachioCommandExecutor.Command command) {
+        CompletableFuture<@Nullable Void> previous = lanes.getOrDefault(deviceId,
+                CompletableFuture.completedFuture(null));
+        CompletableFuture<@Nullable Void> next = previous.exceptionally(failure -> null)
+                .thenCompose(result -> executor.submit(description, command));
+        lanes.put(deviceId, next);
+        next.whenComplete((result, failure) -> {
+            synchronized (this) {
+                lanes.remove(deviceId, next);
+            }
+        });
+        return next;
+    }
+
+    private void flush(String deviceId, Batch batch) throws RachioException {
+        synchronized (this) {
+            if (!batches.remove(deviceId, batch)) {
+                // Superseded by a stop that was sent first, which cancelled the batch result
+                return;
+            }
+        }
+        Map<String, Integer> zoneDurations = batch.zoneDurations;
+        if (zoneDurations.size() == 1) {
+            Map.Entry<String, Integer> zone = zoneDurations.entrySet().iterator().next();
+            api.startZone(thingId, zone.getKey(), zone.getValue());
+        } else {
+            api.startZones(thingId, zoneDurations);
+        }
+        logger.info("Started zones {} of device {}", zoneDurations, deviceId);
+    }
+
+    private void sendStop(String deviceId) throws RachioException {
+        synchronized (this) {
+            pendingStops.remove(deviceId);
+        }
+        api.stopWatering(thingId, deviceId);
+    }
+
+    /**
+     * Pass the outcome of a queued command on, without the {@link CompletionException} the queue wraps it in
+     */
+    private static void complete(CompletableFuture<@Nullable Void> target, @Nullable Throwable failure) {
+        if (failure == null) {
+            target.complete(null);
+        } else {
+            Throwable cause = failure instanceof CompletionException ? failure.getCause() : null;
+            target.completeExceptionally(cause != null ? cause : failure);
+        }
+    }
+}
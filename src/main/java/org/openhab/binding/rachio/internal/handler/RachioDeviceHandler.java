@@ -2,30 +2,26 @@ package org.openhab.binding.rachio.internal.handler;
 
 import static org.openhab.binding.rachio.internal.RachioBindingConstants.*;
 
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.rachio.internal.api.RachioApiException;
-import org.openhab.binding.rachio.internal.api.RachioDevice;
 import org.openhab.binding.rachio.internal.api.RachioHttp;
+import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
 import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
 import org.openhab.core.thing.binding.BaseThingHandler;
 import org.openhab.core.types.Command;
+import org.openhab.core.types.RefreshType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-
 /**
  * The {@link RachioDeviceHandler} is responsible for handling commands, which are
- * sent to one of the channels.
+ * sent to one of the channels. Device state is read from the bridge's account snapshot.
  *
  * @author Damion Boyett - Initial contribution
  */
@@ -33,9 +29,6 @@ import com.google.gson.JsonObject;
 public class RachioDeviceHandler extends BaseThingHandler {
     private final Logger logger = LoggerFactory.getLogger(RachioDeviceHandler.class);
 
-    private @Nullable ScheduledFuture<?> refreshJob;
-    private final Gson gson = new Gson();
-
     private @Nullable String deviceId;
 
     public RachioDeviceHandler(Thing thing) {
@@ -56,45 +49,39 @@ public class RachioDeviceHandler extends BaseThingHandler {
     }
 
     private void initializeDevice() {
-        updateStatus(ThingStatus.ONLINE);
-        startRefreshJob();
-    }
-
-    private void startRefreshJob() {
-        ScheduledFuture<?> job = refreshJob;
-        if (job != null && !job.isCancelled()) {
-            job.cancel(false);
+        RachioBridgeHandler bridgeHandler = getBridgeHandler();
+        if (bridgeHandler == null) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
+            return;
         }
 
-        refreshJob = scheduler.scheduleWithFixedDelay(this::refreshDevice, 1, 60, TimeUnit.SECONDS);
+        RachioAccountSnapshot snapshot = bridgeHandler.getSnapshot();
+        if (snapshot == null) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, "No account data available");
+            return;
+        }
+        snapshotUpdated(snapshot);
     }
 
-    private void refreshDevice() {
+    /**
+     * Called by the bridge whenever a new account snapshot has been fetched
+     */
+    public void snapshotUpdated(RachioAccountSnapshot snapshot) {
         String localDeviceId = deviceId;
         if (localDeviceId == null) {
             return;
         }
 
-        RachioHttp api = getApi();
-        if (api == null) {
+        RachioPerson.Device device = snapshot.getDevice(localDeviceId);
+        if (device == null) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.GONE, "Device not found in Rachio account");
             return;
         }
-
-        try {
-            JsonObject deviceData = api.getDevice(localDeviceId);
-            if (deviceData != null) {
-                // Convert JSON to RachioDevice object
-                RachioDevice device = gson.fromJson(deviceData, RachioDevice.class);
-                updateDeviceStatus(device);
-                updateStatus(ThingStatus.ONLINE);
-            }
-        } catch (Exception e) {
-            logger.debug("Failed to refresh device {}: {}", localDeviceId, e.getMessage());
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
-        }
+        updateDeviceStatus(device);
+        updateStatus(ThingStatus.ONLINE);
     }
 
-    private void updateDeviceStatus(RachioDevice device) {
+    private void updateDeviceStatus(RachioPerson.Device device) {
         // Update device channels based on device status
         // You can add channel updates here based on device data
     }
@@ -106,6 +93,15 @@ public class RachioDeviceHandler extends BaseThingHandler {
             return;
         }
 
+        RachioBridgeHandler bridgeHandler = getBridgeHandler();
+        if (command instanceof RefreshType) {
+            RachioAccountSnapshot snapshot = bridgeHandler != null ? bridgeHandler.getSnapshot() : null;
+            if (snapshot != null) {
+                snapshotUpdated(snapshot);
+            }
+            return;
+        }
+
         RachioHttp api = getApi();
         if (api == null) {
             return;
@@ -130,24 +126,29 @@ public class RachioDeviceHandler extends BaseThingHandler {
                     break;
             }
             updateStatus(ThingStatus.ONLINE);
+            if (bridgeHandler != null) {
+                bridgeHandler.invalidateSnapshot();
+            }
         } catch (RachioApiException e) {
             logger.debug("Failed to execute command {}: {}", channelUID.getId(), e.getMessage());
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
         }
     }
 
-    private @Nullable RachioHttp getApi() {
-        RachioBridgeHandler bridgeHandler = (RachioBridgeHandler) getBridge().getHandler();
-        return bridgeHandler != null ? bridgeHandler.getApi() : null;
+    /**
+     * Get the id of the controller this thing represents, null until it is configured
+     */
+    public @Nullable String getDeviceId() {
+        return deviceId;
     }
 
-    @Override
-    public void dispose() {
-        ScheduledFuture<?> job = refreshJob;
-        if (job != null && !job.isCancelled()) {
-            job.cancel(true);
-        }
-        refreshJob = null;
-        super.dispose();
+    private @Nullable RachioBridgeHandler getBridgeHandler() {
+        Bridge bridge = getBridge();
+        return bridge != null ? (RachioBridgeHandler) bridge.getHandler() : null;
+    }
+
+    private @Nullable RachioHttp getApi() {
+        RachioBridgeHandler bridgeHandler = getBridgeHandler();
+        return bridgeHandler != null ? bridgeHandler.getApi() : null;
     }
 }
@@ -0,0 +1,142 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.rachio.internal.api.dto.RachioEventSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RachioEventHistory} keeps the most recent events of each device together with the timestamp
+ * of the newest event seen, so polls only have to ask the API for events after that point. Events are
+ * kept in a bounded ring per device, the oldest ones are dropped first.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+class RachioEventHistory {
+    private final Logger logger = LoggerFactory.getLogger(RachioEventHistory.class);
+
+    private final int capacity;
+    private final Duration initialWindow;
+    private final Map<String, DeviceHistory> histories = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity events kept per device
+     * @param initialWindow how far back the first fetch of a device reaches
+     */
+    RachioEventHistory(int capacity, Duration initialWindow) {
+        this.capacity = capacity;
+        this.initialWindow = initialWindow;
+    }
+
+    /**
+     * Get the start of the time range the next fetch for a device has to cover, in epoch milliseconds
+     */
+    long getStartTime(String deviceId) {
+        DeviceHistory history = histories.get(deviceId);
+        return history != null ? history.getHighWaterMark() : Instant.now().minus(initialWindow).toEpochMilli();
+    }
+
+    /**
+     * Merge freshly fetched events into the history of a device
+     *
+     * @return number of events that were not known yet
+     */
+    int merge(String deviceId, List<RachioEventSummary.Event> events) {
+        return histories.computeIfAbsent(deviceId, id -> new DeviceHistory(deviceId, getStartTime(id)))
+                .merge(events);
+    }
+
+    /**
+     * Get the newest known event of a device
+     */
+    RachioEventSummary.@Nullable Event getLatestEvent(String deviceId) {
+        DeviceHistory history = histories.get(deviceId);
+        return history != null ? history.getLatestEvent() : null;
+    }
+
+    void clear() {
+        histories.clear();
+    }
+
+    /**
+     * Parse an event timestamp, Rachio sends epoch milliseconds but ISO-8601 is accepted as well
+     *
+     * @return the timestamp in epoch milliseconds, or -1 if it cannot be parsed
+     */
+    static long parseTimestamp(String timestamp) {
+        try {
+            return Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            try {
+                return Instant.parse(timestamp).toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                return -1;
+            }
+        }
+    }
+
+    private class DeviceHistory {
+        private final String deviceId;
+        private final Deque<RachioEventSummary.Event> events = new ArrayDeque<>();
+        private long highWaterMark;
+        // Ids of the events at the high water mark, the next fetch starts there and returns them again
+        private final Set<String> idsAtHighWaterMark = new HashSet<>();
+
+        DeviceHistory(String deviceId, long start) {
+            this.deviceId = deviceId;
+            this.highWaterMark = start;
+        }
+
+        synchronized long getHighWaterMark() {
+            return highWaterMark;
+        }
+
+        synchronized int merge(List<RachioEventSummary.Event> fetched) {
+            List<RachioEventSummary.Event> sorted = new ArrayList<>(fetched);
+            sorted.sort((a, b) -> Long.compare(parseTimestamp(a.timestamp), parseTimestamp(b.timestamp)));
+
+            int added = 0;
+            for (RachioEventSummary.Event event : sorted) {
+                long time = parseTimestamp(event.timestamp);
+                if (time < 0) {
+                    logger.debug("Skipping event {} of device {} with unreadable timestamp '{}'", event.id,
+                            deviceId, event.timestamp);
+                    continue;
+                }
+                if (time < highWaterMark || (time == highWaterMark && idsAtHighWaterMark.contains(event.id))) {
+                    continue;
+                }
+                if (time > highWaterMark) {
+                    highWaterMark = time;
+                    idsAtHighWaterMark.clear();
+                }
+                idsAtHighWaterMark.add(event.id);
+
+                if (events.size() == capacity) {
+                    events.removeFirst();
+                }
+                events.addLast(event);
+                added++;
+            }
+            return added;
+        }
+
+        synchronized RachioEventSummary.@Nullable Event getLatestEvent() {
+            return events.peekLast();
+        }
+    }
+}
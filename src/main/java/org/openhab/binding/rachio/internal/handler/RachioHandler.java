@@ -2,23 +2,34 @@ package org.openhab.binding.rachio.internal.handler;
 
 import static org.openhab.binding.rachio.internal.RachioBindingConstants.*;
 
-import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.rachio.internal.api.RachioHttp;
+import org.openhab.binding.rachio.internal.api.RachioImage;
+import org.openhab.binding.rachio.internal.api.RachioWebhookRouter;
 import org.openhab.binding.rachio.internal.api.dto.RachioWebhookEvent;
 import org.openhab.binding.rachio.internal.api.dto.RachioEventSummary;
 import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
 import org.openhab.binding.rachio.internal.api.dto.RachioException;
 import org.openhab.binding.rachio.internal.config.RachioConfiguration;
+import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.QuantityType;
@@ -32,15 +43,10 @@ import org.openhab.core.thing.binding.BaseThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerService;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.RefreshType;
-import org.osgi.service.component.annotations.Activate;
-import org.osgi.service.component.annotations.Deactivate;
-import org.osgi.service.component.annotations.Reference;
+import org.openhab.core.types.State;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
-
 /**
  * The {@link RachioHandler} is responsible for handling commands, which are
  * sent to one of the channels.
@@ -48,24 +54,49 @@ import com.google.gson.JsonSyntaxException;
  * @author Brian Gleason - Initial contribution
  */
 @NonNullByDefault
-public class RachioHandler extends BaseThingHandler {
+public class RachioHandler extends BaseThingHandler implements RachioAccountCache.Listener {
 
     private final Logger logger = LoggerFactory.getLogger(RachioHandler.class);
-    private final Gson gson = new Gson();
+
+    // Bursts of webhook events are merged into one refresh per device
+    private static final Duration REFRESH_QUIET_PERIOD = Duration.ofSeconds(2);
+    private static final Duration REFRESH_MAX_DELAY = Duration.ofSeconds(10);
+    private static final Duration ACCOUNT_CACHE_TTL = Duration.ofMinutes(5);
+    // Longest time a device fetch may take, it is cancelled after that
+    private static final Duration POLL_DEADLINE = Duration.ofSeconds(45);
+    private static final int EVENT_HISTORY_SIZE = 50;
+    private static final Duration EVENT_HISTORY_WINDOW = Duration.ofDays(1);
+    // Zone starts arriving within this window are sent as one request
+    private static final Duration COMMAND_BATCH_WINDOW = Duration.ofMillis(500);
+    // States published ahead of the API are reconciled by the next webhook, or a refresh after this time
+    private static final Duration OPTIMISTIC_STATE_TIMEOUT = Duration.ofMinutes(2);
     
-    @Reference
-    private RachioHttp rachioHttp;
+    private final RachioHttp rachioHttp;
+
+    private final RachioWebhookRouter webhookRouter;
     
-    private @Nullable RachioPerson person;
+    private @Nullable RachioAccountCache accountCache;
+    private @Nullable RachioCommandBatcher commandBatcher;
+    private volatile @Nullable RachioPerson person;
     private @Nullable ScheduledFuture<?> pollingJob;
     private int pollingInterval = 30;
-    private @Nullable String deviceId;
-
-    public RachioHandler(Thing thing) {
+    private volatile Set<String> deviceIds = Set.of();
+    private volatile RachioChannelIndex channelIndex = RachioChannelIndex.EMPTY;
+    // Device fetches in flight, a device is never fetched twice at the same time
+    private final Map<String, CompletableFuture<@Nullable Void>> deviceFetches = new HashMap<>();
+    private final RachioChannelStateCache stateCache = new RachioChannelStateCache();
+    private final RachioEventHistory eventHistory = new RachioEventHistory(EVENT_HISTORY_SIZE, EVENT_HISTORY_WINDOW);
+    private final RachioRefreshCoordinator refreshCoordinator = new RachioRefreshCoordinator(scheduler,
+            this::refreshDevice, REFRESH_QUIET_PERIOD, REFRESH_MAX_DELAY);
+    private final RachioOptimisticState optimisticState = new RachioOptimisticState(scheduler,
+            refreshCoordinator::request, OPTIMISTIC_STATE_TIMEOUT);
+
+    public RachioHandler(Thing thing, RachioHttp rachioHttp, RachioWebhookRouter webhookRouter) {
         super(thing);
+        this.rachioHttp = rachioHttp;
+        this.webhookRouter = webhookRouter;
     }
 
-    @Activate
     @Override
     public void initialize() {
         logger.debug("Initializing Rachio handler.");
@@ -86,6 +117,12 @@ public class RachioHandler extends BaseThingHandler {
         String thingId = getThing().getUID().toString();
         rachioHttp.registerThing(thingId, apiKey);
 
+        // Fetch the account right away so webhooks can be routed before the first poll
+        RachioAccountCache cache = new RachioAccountCache(rachioHttp, thingId, scheduler, ACCOUNT_CACHE_TTL, this);
+        accountCache = cache;
+        cache.start();
+        commandBatcher = new RachioCommandBatcher(rachioHttp, thingId, COMMAND_BATCH_WINDOW);
+
         // Start the polling job
         startPolling();
 
@@ -94,11 +131,25 @@ public class RachioHandler extends BaseThingHandler {
         logger.debug("Finished initializing Rachio handler.");
     }
 
-    @Deactivate
     @Override
     public void dispose() {
         logger.debug("Disposing Rachio handler.");
         stopPolling();
+        RachioAccountCache cache = accountCache;
+        if (cache != null) {
+            cache.stop();
+        }
+        accountCache = null;
+        RachioCommandBatcher batcher = commandBatcher;
+        if (batcher != null) {
+            batcher.cancelAll();
+        }
+        commandBatcher = null;
+        refreshCoordinator.cancelAll();
+        optimisticState.clear();
+        stateCache.clear();
+        eventHistory.clear();
+        webhookRouter.unregister(this);
         
         // Unregister from RachioHttp service
         String thingId = getThing().getUID().toString();
@@ -107,14 +158,41 @@ public class RachioHandler extends BaseThingHandler {
         super.dispose();
     }
 
-    private void startPolling() {
+    private synchronized void startPolling() {
+        ScheduledFuture<?> job = pollingJob;
+        if (job == null || job.isCancelled()) {
+            pollingJob = scheduler.schedule(this::pollAndReschedule, 10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void pollAndReschedule() {
+        poll();
+        scheduleNextPoll();
+    }
+
+    /**
+     * Schedule the next poll, stretching the interval when the API quota runs low
+     */
+    private synchronized void scheduleNextPoll() {
         ScheduledFuture<?> job = pollingJob;
         if (job == null || job.isCancelled()) {
-            pollingJob = scheduler.scheduleWithFixedDelay(this::poll, 10, pollingInterval, TimeUnit.SECONDS);
+            // Polling was stopped while this cycle ran
+            return;
+        }
+
+        RachioPerson localPerson = person;
+        int requestsPerCycle = localPerson != null && localPerson.devices != null
+                ? Math.max(1, localPerson.devices.size())
+                : 1;
+        long delay = rachioHttp.getAdaptivePollingInterval(getThing().getUID().toString(), pollingInterval,
+                requestsPerCycle);
+        if (delay > pollingInterval) {
+            logger.debug("API quota running low, next poll in {} seconds", delay);
         }
+        pollingJob = scheduler.schedule(this::pollAndReschedule, delay, TimeUnit.SECONDS);
     }
 
-    private void stopPolling() {
+    private synchronized void stopPolling() {
         ScheduledFuture<?> job = pollingJob;
         if (job != null && !job.isCancelled()) {
             job.cancel(true);
@@ -125,61 +203,189 @@ public class RachioHandler extends BaseThingHandler {
     private void poll() {
         logger.debug("Polling for Rachio data");
         try {
-            String thingId = getThing().getUID().toString();
-
-            // Get person data if not already available
-            if (person == null) {
-                person = rachioHttp.getPerson(thingId);
-                if (person == null) {
-                    updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, "Failed to get person data");
-                    return;
-                }
+            // The account is refreshed in the background, this only waits if that has not succeeded yet
+            RachioAccountCache cache = accountCache;
+            if (cache == null || cache.get() == null) {
+                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, "Failed to get person data");
+                return;
             }
 
             // Update device status
             updateDeviceStatus();
 
             updateStatus(ThingStatus.ONLINE);
+            logger.debug("Channel updates published: {}, suppressed as unchanged: {}",
+                    stateCache.getPublishedCount(), stateCache.getSuppressedCount());
 
-        } catch (RachioException e) {
-            logger.debug("Error during polling: {}", e.getMessage(), e);
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
         } catch (Exception e) {
             logger.debug("Unexpected error during polling: {}", e.getMessage(), e);
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, "Unexpected error: " + e.getMessage());
         }
     }
 
+    /**
+     * Called by the account cache after the first fetch and whenever devices or zones changed
+     */
+    @Override
+    public void accountChanged(RachioAccountSnapshot snapshot, RachioAccountDiff diff) {
+        RachioPerson localPerson = snapshot.getPerson();
+        person = localPerson;
+        if (diff.isStructural() || !channelIndex.matches(localPerson)) {
+            channelIndex = RachioChannelIndex.build(getThing().getUID(), localPerson);
+        }
+        // Zone photos may change without the structure changing
+        updateRoutes(localPerson);
+        // Renamed or reconfigured zones and controllers show up in their next summary
+        diff.getChangedDevices().forEach(refreshCoordinator::request);
+        diff.getChangedZones().forEach(zoneId -> {
+            String deviceId = snapshot.getDeviceIdForZone(zoneId);
+            if (deviceId != null) {
+                refreshCoordinator.request(deviceId);
+            }
+        });
+    }
+
+    /**
+     * Register every device and zone photo of the account with the router
+     */
+    private void updateRoutes(RachioPerson localPerson) {
+        List<String> devices = new ArrayList<>();
+        List<String> images = new ArrayList<>();
+        if (localPerson.devices != null) {
+            for (RachioPerson.Device device : localPerson.devices) {
+                devices.add(device.id);
+                if (device.zones != null) {
+                    for (RachioPerson.Zone zone : device.zones) {
+                        String imageId = getImageId(zone.imageUrl);
+                        if (imageId != null) {
+                            images.add(imageId);
+                        }
+                    }
+                }
+            }
+        }
+        deviceIds = Set.copyOf(devices);
+        webhookRouter.registerImages(this, images);
+        webhookRouter.register(this, devices);
+    }
+
+    /**
+     * The image id is the last path segment of the zone's image URL
+     */
+    private static @Nullable String getImageId(@Nullable String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return null;
+        }
+        int end = imageUrl.indexOf('?');
+        String path = end < 0 ? imageUrl : imageUrl.substring(0, end);
+        String imageId = path.substring(path.lastIndexOf('/') + 1);
+        return imageId.isEmpty() ? null : imageId;
+    }
+
+    /**
+     * Start fetching the event summaries of all devices. Nothing waits for them: each device is applied by
+     * its own callback as soon as its answer arrives, and a failing device does not affect the others.
+     */
     private void updateDeviceStatus() {
-        if (person == null || person.devices == null) {
+        RachioPerson localPerson = person;
+        if (localPerson == null || localPerson.devices == null) {
             return;
         }
 
+        String thingId = getThing().getUID().toString();
+        // Starting a fetch never blocks, a fetch waiting for a rate limit token is scheduled, so all devices
+        // are requested before the first answer arrives
+        for (RachioPerson.Device device : localPerson.devices) {
+            fetchDevice(thingId, device.id);
+        }
+    }
+
+    /**
+     * Fetch the event summary of a single device, used for refreshes triggered by webhooks
+     */
+    private void refreshDevice(String deviceId) {
+        String thingId = getThing().getUID().toString();
+        CompletableFuture<@Nullable Void> running;
+        synchronized (deviceFetches) {
+            running = deviceFetches.get(deviceId);
+        }
+        if (running != null) {
+            // The fetch in flight may have been answered before the change, fetch again once it is done
+            running.whenComplete((result, failure) -> fetchDevice(thingId, deviceId));
+        } else {
+            fetchDevice(thingId, deviceId);
+        }
+    }
+
+    /**
+     * Fetch the state of a device and the events since the last fetch, and apply them once they arrive. A
+     * device whose previous fetch is still in flight is skipped, a fetch that takes longer than the poll
+     * deadline is cancelled.
+     */
+    private void fetchDevice(String thingId, String deviceId) {
+        CompletableFuture<@Nullable Void> fetch;
+        synchronized (deviceFetches) {
+            CompletableFuture<@Nullable Void> running = deviceFetches.get(deviceId);
+            if (running != null && !running.isDone()) {
+                logger.debug("Previous fetch of device {} still in flight, skipped", deviceId);
+                return;
+            }
+            long startTime = eventHistory.getStartTime(deviceId);
+            long endTime = System.currentTimeMillis();
+            fetch = rachioHttp.getDeviceEventSummaryAsync(thingId, deviceId, startTime, endTime)
+                    .orTimeout(POLL_DEADLINE.toSeconds(), TimeUnit.SECONDS)
+                    .handle((summary, failure) -> {
+                        applyDeviceSummary(deviceId, summary, failure);
+                        return null;
+                    });
+            deviceFetches.put(deviceId, fetch);
+        }
+        fetch.whenComplete((result, failure) -> {
+            synchronized (deviceFetches) {
+                deviceFetches.remove(deviceId, fetch);
+            }
+        });
+    }
+
+    private void applyDeviceSummary(String deviceId, @Nullable RachioEventSummary summary,
+            @Nullable Throwable failure) {
+        if (failure != null) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+            if (cause instanceof TimeoutException) {
+                // Timing out completes the request, which cancels whatever step it is in
+                logger.debug("Device {} did not answer within {} seconds", deviceId, POLL_DEADLINE.toSeconds());
+            } else {
+                logger.debug("Error updating device {}: {}", deviceId, cause.getMessage());
+            }
+            return;
+        }
+        if (summary == null) {
+            return;
+        }
         try {
-            String thingId = getThing().getUID().toString();
-            
-            // Update each device
-            for (RachioPerson.Device device : person.devices) {
-                // Store the first device ID for webhook routing
-                if (this.deviceId == null) {
-                    this.deviceId = device.id;
-                    logger.debug("Registered device ID for webhook routing: {}", device.id);
-                }
-                
-                RachioEventSummary summary = rachioHttp.getDeviceEventSummary(thingId, device.id);
-                if (summary != null) {
-                    updateDeviceChannels(device.id, summary);
-                }
+            List<RachioEventSummary.Event> events = summary.events;
+            if (events != null) {
+                int added = eventHistory.merge(deviceId, events);
+                logger.trace("Device {}: {} new events of {} fetched", deviceId, added, events.size());
             }
-        } catch (RachioException e) {
-            logger.debug("Error updating device status: {}", e.getMessage(), e);
+            updateDeviceChannels(deviceId, summary);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply the state of device {}: {}", deviceId, e.getMessage(), e);
         }
     }
 
     private void updateDeviceChannels(String deviceId, RachioEventSummary summary) {
         // Update common device channels
-        updateState(new ChannelUID(getThing().getUID(), DEVICE, deviceId, STATUS), 
-                   new StringType(summary.status));
+        publishDeviceState(deviceId, STATUS, new StringType(summary.status));
+        RachioEventSummary.Event lastEvent = eventHistory.getLatestEvent(deviceId);
+        if (lastEvent != null) {
+            publishDeviceState(deviceId, RachioChannelIndex.CHANNEL_LAST_EVENT, new StringType(lastEvent.summary));
+            long time = RachioEventHistory.parseTimestamp(lastEvent.timestamp);
+            publishDeviceState(deviceId, RachioChannelIndex.CHANNEL_LAST_EVENT_TIME,
+                    new DateTimeType(Instant.ofEpochMilli(time)));
+        }
 
         // Update zone channels if available
         if (summary.zoneData != null) {
@@ -192,150 +398,198 @@ public class RachioHandler extends BaseThingHandler {
     private void updateZoneChannels(String deviceId, RachioEventSummary.ZoneSummary zone) {
         String zoneId = zone.zoneId;
         
-        updateState(new ChannelUID(getThing().getUID(), ZONE, deviceId, zoneId, ZONE_NAME), 
-                   new StringType(zone.name));
-        updateState(new ChannelUID(getThing().getUID(), ZONE, deviceId, zoneId, ZONE_ENABLED), 
-                   zone.enabled ? OnOffType.ON : OnOffType.OFF);
-        updateState(new ChannelUID(getThing().getUID(), ZONE, deviceId, zoneId, ZONE_RUNTIME), 
-                   new QuantityType<>(zone.runtime, ImperialUnits.SECOND));
+        publishZoneState(zoneId, ZONE_NAME, new StringType(zone.name));
+        publishZoneState(zoneId, ZONE_ENABLED, zone.enabled ? OnOffType.ON : OnOffType.OFF);
+        publishZoneState(zoneId, ZONE_RUNTIME, new QuantityType<>(zone.runtime, ImperialUnits.SECOND));
+    }
+
+    private void publishDeviceState(String deviceId, String channelId, State state) {
+        ChannelUID channelUID = channelIndex.getDeviceChannel(deviceId, channelId);
+        if (channelUID != null) {
+            publishState(channelUID, state);
+        } else {
+            logger.trace("Device {} is not part of the account structure, {} not updated", deviceId, channelId);
+        }
+    }
+
+    private void publishZoneState(String zoneId, String channelId, State state) {
+        ChannelUID channelUID = channelIndex.getZoneChannel(zoneId, channelId);
+        if (channelUID != null) {
+            publishState(channelUID, state);
+        } else {
+            logger.trace("Zone {} is not part of the account structure, {} not updated", zoneId, channelId);
+        }
+    }
+
+    /**
+     * Post a channel state to the event bus, unless it equals the state published last
+     */
+    private void publishState(ChannelUID channelUID, State state) {
+        if (optimisticState.overrides(channelUID, state)) {
+            logger.trace("{} awaits confirmation of a command, {} held back", channelUID, state);
+            return;
+        }
+        if (stateCache.update(channelUID, state)) {
+            updateState(channelUID, state);
+        }
     }
 
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command instanceof RefreshType) {
-            // Refresh data for this channel
+            // Refresh data for this channel, publishing its state even if unchanged
+            stateCache.invalidate(channelUID);
             scheduler.execute(this::poll);
             return;
         }
 
         try {
-            String groupId = channelUID.getGroupId();
-            if (groupId == null) {
+            RachioChannelIndex.ChannelRef ref = channelIndex.lookup(channelUID);
+            if (ref == null) {
+                logger.debug("Command for unknown channel {} ignored", channelUID);
                 return;
             }
 
-            if (ZONE.equals(groupId)) {
-                handleZoneCommand(channelUID, command);
-            } else if (DEVICE.equals(groupId)) {
-                handleDeviceCommand(channelUID, command);
+            String zoneId = ref.zoneId;
+            if (zoneId != null) {
+                handleZoneCommand(channelUID, ref.deviceId, zoneId, ref.channelId, command);
+            } else {
+                handleDeviceCommand(channelUID, ref.deviceId, ref.channelId, command);
             }
         } catch (Exception e) {
             logger.error("Error handling command: {}", e.getMessage(), e);
         }
     }
 
-    private void handleZoneCommand(ChannelUID channelUID, Command command) {
-        // Extract deviceId and zoneId from channel UID
-        String[] parts = channelUID.getGroupId().split("#");
-        if (parts.length < 3) {
-            return;
-        }
-        String deviceId = parts[1];
-        String zoneId = parts[2];
-        String channelId = channelUID.getIdWithoutGroup();
-
+    private void handleZoneCommand(ChannelUID channelUID, String deviceId, String zoneId, String channelId,
+            Command command) {
         try {
             String thingId = getThing().getUID().toString();
             
             if (ZONE_ENABLED.equals(channelId) && command instanceof OnOffType) {
                 boolean enable = (command == OnOffType.ON);
-                rachioHttp.setZoneEnabled(thingId, zoneId, enable);
-                
-                // Update local state
-                updateState(channelUID, (OnOffType) command);
+                // Show the new state right away, the next webhook or refresh reconciles it. Expect it first so
+                // a poll in between cannot flip the channel back.
+                RachioOptimisticState.Pending expected = optimisticState.expect(deviceId, channelUID,
+                        (OnOffType) command, stateCache.get(channelUID));
+                if (stateCache.update(channelUID, (OnOffType) command)) {
+                    updateState(channelUID, (OnOffType) command);
+                }
+                rachioHttp.getCommandExecutor()
+                        .submit("enable zone " + zoneId, () -> rachioHttp.setZoneEnabled(thingId, zoneId, enable))
+                        .whenComplete((result, failure) -> {
+                            if (failure != null) {
+                                logger.warn("Failed to set zone {} enabled {}: {}", zoneId, enable,
+                                        failure.getMessage());
+                                revertState(deviceId, channelUID, expected);
+                            }
+                        });
             } else if (RUN_ZONE.equals(channelId) && command instanceof DecimalType) {
                 int duration = ((DecimalType) command).intValue();
-                rachioHttp.startZone(thingId, zoneId, duration);
-                logger.info("Started zone {} for {} seconds", zoneId, duration);
+                RachioCommandBatcher batcher = commandBatcher;
+                if (batcher != null) {
+                    batcher.startZone(deviceId, zoneId, duration).whenComplete((result, failure) -> {
+                        if (failure != null && !(failure instanceof CancellationException)) {
+                            logger.warn("Failed to start zone {} of device {}: {}", zoneId, deviceId,
+                                    failure.getMessage());
+                            reloadZones(deviceId, List.of(zoneId));
+                        }
+                    });
+                    logger.debug("Queued start of zone {} for {} seconds", zoneId, duration);
+                }
             }
-        } catch (RachioException e) {
-            logger.error("Error handling zone command: {}", e.getMessage(), e);
         } catch (Exception e) {
             logger.error("Unexpected error handling zone command: {}", e.getMessage(), e);
         }
     }
 
-    private void handleDeviceCommand(ChannelUID channelUID, Command command) {
-        String[] parts = channelUID.getGroupId().split("#");
-        if (parts.length < 2) {
+    /**
+     * Restore the state a failed command replaced, or fetch it if it is not known
+     */
+    private void revertState(String deviceId, ChannelUID channelUID, RachioOptimisticState.Pending expected) {
+        if (!optimisticState.fail(channelUID, expected)) {
+            // A later command or a webhook owns the channel now
             return;
         }
-        String deviceId = parts[1];
-        String channelId = channelUID.getIdWithoutGroup();
+        State previous = expected.getPrevious();
+        if (previous != null) {
+            publishState(channelUID, previous);
+        } else {
+            stateCache.invalidate(channelUID);
+            refreshCoordinator.request(deviceId);
+        }
+    }
+
+    /**
+     * Fetch the zone states again after a start or stop failed, publishing them even if unchanged, since
+     * the items may still show what the command asked for
+     */
+    private void reloadZones(String deviceId, Collection<String> zoneIds) {
+        RachioChannelIndex index = channelIndex;
+        for (String zoneId : zoneIds) {
+            for (ChannelUID channelUID : index.getZoneChannels(zoneId)) {
+                stateCache.invalidate(channelUID);
+            }
+        }
+        refreshCoordinator.request(deviceId);
+    }
 
+    private void handleDeviceCommand(ChannelUID channelUID, String deviceId, String channelId, Command command) {
         try {
-            String thingId = getThing().getUID().toString();
-            
             if (STOP_WATERING.equals(channelId) && command instanceof OnOffType && command == OnOffType.ON) {
-                rachioHttp.stopWatering(thingId, deviceId);
-                // Reset the switch
+                RachioCommandBatcher batcher = commandBatcher;
+                if (batcher != null) {
+                    batcher.stopWatering(deviceId).whenComplete((result, failure) -> {
+                        if (failure != null) {
+                            logger.warn("Failed to stop watering for device {}: {}", deviceId,
+                                    failure.getMessage());
+                            reloadZones(deviceId, channelIndex.getZoneIds(deviceId));
+                        }
+                    });
+                }
+                // Reset the switch. It answers the ON the command left on the item, so it is always posted,
+                // even if OFF was the state published last.
+                stateCache.update(channelUID, OnOffType.OFF);
                 updateState(channelUID, OnOffType.OFF);
-                logger.info("Stopped watering for device {}", deviceId);
             }
-        } catch (RachioException e) {
-            logger.error("Error handling device command: {}", e.getMessage(), e);
         } catch (Exception e) {
             logger.error("Unexpected error handling device command: {}", e.getMessage(), e);
         }
     }
 
-    public void handleWebhookCall(HttpServletRequest req) {
+    /**
+     * Apply a webhook event that has already been read and parsed by the servlet
+     */
+    public void handleWebhookEvent(RachioWebhookEvent event) {
         try {
-            String payload = req.getReader().lines().reduce("", (accumulator, actual) -> accumulator + actual);
-            logger.debug("Received webhook payload: {}", payload);
-
-            // Use the new RachioWebhookEvent DTO
-            RachioWebhookEvent event = gson.fromJson(payload, RachioWebhookEvent.class);
-            if (event != null) {
-                processWebhookEvent(event);
-            }
-        } catch (IOException | JsonSyntaxException e) {
+            processWebhookEvent(event);
+        } catch (Exception e) {
             logger.error("Error processing webhook: {}", e.getMessage(), e);
         }
     }
 
-    public void handleImageCall(HttpServletRequest req, HttpServletResponse resp) {
-        try {
-            String pathInfo = req.getPathInfo();
-            if (pathInfo != null && pathInfo.startsWith("/")) {
-                String imageId = pathInfo.substring(1);
-                String thingId = getThing().getUID().toString();
-                
-                byte[] imageData = rachioHttp.getImage(thingId, imageId);
-                if (imageData != null) {
-                    resp.setContentType("image/jpeg");
-                    resp.getOutputStream().write(imageData);
-                    return;
-                }
-            }
-            resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
-        } catch (RachioException e) {
-            logger.error("Error serving image: {}", e.getMessage(), e);
-            try {
-                resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            } catch (Exception ex) {
-                // Ignore
-            }
-        } catch (IOException e) {
-            logger.error("Error serving image: {}", e.getMessage(), e);
-            try {
-                resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            } catch (Exception ex) {
-                // Ignore
-            }
-        }
+    /**
+     * Fetch a zone or device photo with this thing's API key into the target file, revalidating the cached
+     * copy if one is passed
+     */
+    public @Nullable RachioImage fetchImage(String imageId, @Nullable RachioImage cached, Path target)
+            throws RachioException {
+        return rachioHttp.getImage(getThing().getUID().toString(), imageId, cached, target);
     }
 
     private void processWebhookEvent(RachioWebhookEvent event) {
         logger.debug("Processing webhook event: {}", event.eventType);
 
-        // Check if this webhook is for our device
-        String localDeviceId = this.deviceId;
-        if (localDeviceId != null && !localDeviceId.equals(event.deviceId)) {
-            logger.debug("Webhook event not for our device. Our: {}, Event: {}", localDeviceId, event.deviceId);
+        // Check if this webhook is for one of our devices
+        if (!handlesDevice(event.deviceId)) {
+            logger.debug("Webhook event not for our devices. Our: {}, Event: {}", deviceIds, event.deviceId);
             return;
         }
 
+        // States published ahead of the API give way to what the controller reports, and the refresh
+        // fetches the channels the payload does not carry
+        boolean hadOptimisticStates = optimisticState.reconcile(event.deviceId);
+
         // Update relevant channels based on event type
         if (event.device != null) {
             updateDeviceFromEvent(event.device);
@@ -345,16 +599,25 @@ public class RachioHandler extends BaseThingHandler {
             updateZoneFromEvent(event);
         }
 
-        // Trigger a refresh to get latest data
-        scheduler.schedule(this::poll, 1, TimeUnit.SECONDS);
+        // Skip the refresh when the payload already holds everything it would fetch
+        if (hadOptimisticStates || !carriesFullState(event)) {
+            refreshCoordinator.request(event.deviceId);
+        }
+    }
+
+    /**
+     * A device status event carries the complete device state, zone and schedule events only report
+     * what happened and need a refresh for runtimes and the remaining zones
+     */
+    private boolean carriesFullState(RachioWebhookEvent event) {
+        RachioWebhookEvent.WebhookDevice device = event.device;
+        return device != null && event.zone == null && device.status != null && !device.status.isEmpty();
     }
 
     private void updateDeviceFromEvent(RachioWebhookEvent.WebhookDevice device) {
         if (device.id != null && !device.id.isEmpty()) {
-            updateState(new ChannelUID(getThing().getUID(), DEVICE, device.id, STATUS),
-                       new StringType(device.status));
-            updateState(new ChannelUID(getThing().getUID(), DEVICE, device.id, "power"),
-                       device.on ? OnOffType.ON : OnOffType.OFF);
+            publishDeviceState(device.id, STATUS, new StringType(device.status));
+            publishDeviceState(device.id, RachioChannelIndex.CHANNEL_POWER, device.on ? OnOffType.ON : OnOffType.OFF);
         }
     }
 
@@ -362,12 +625,11 @@ public class RachioHandler extends BaseThingHandler {
         if (event.zone != null && event.deviceId != null && !event.deviceId.isEmpty()) {
             String zoneId = event.zone.id;
             if (zoneId != null && !zoneId.isEmpty()) {
-                updateState(new ChannelUID(getThing().getUID(), ZONE, event.deviceId, zoneId, ZONE_STATUS),
-                           new StringType(event.zone.status));
+                publishZoneState(zoneId, ZONE_STATUS, new StringType(event.zone.status));
                 
                 if (event.zone.duration > 0) {
-                    updateState(new ChannelUID(getThing().getUID(), ZONE, event.deviceId, zoneId, "lastDuration"),
-                               new QuantityType<>(event.zone.duration, ImperialUnits.SECOND));
+                    publishZoneState(zoneId, RachioChannelIndex.CHANNEL_LAST_DURATION,
+                            new QuantityType<>(event.zone.duration, ImperialUnits.SECOND));
                 }
             }
         }
@@ -377,15 +639,14 @@ public class RachioHandler extends BaseThingHandler {
      * Check if this handler manages the specified device
      */
     public boolean handlesDevice(String deviceId) {
-        return deviceId != null && deviceId.equals(this.deviceId);
+        return deviceId != null && deviceIds.contains(deviceId);
     }
 
     /**
-     * Get the device ID managed by this handler
+     * Get the IDs of all devices managed by this handler
      */
-    @Nullable
-    public String getDeviceId() {
-        return deviceId;
+    public Set<String> getDeviceIds() {
+        return deviceIds;
     }
 
     @Override
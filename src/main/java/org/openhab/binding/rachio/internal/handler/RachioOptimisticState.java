@@ -0,0 +1,148 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link RachioOptimisticState} tracks channel states that were published as soon as a command was
+ * accepted, before the API confirmed them. While a state is pending, polls that started before the command
+ * must not flip the channel back, so their differing values are held back. The next webhook of the device
+ * reconciles the pending states, as does a refresh if no webhook arrives within the timeout.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+class RachioOptimisticState {
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<String> reconcile;
+    private final long timeoutMillis;
+    private final Map<ChannelUID, Pending> pending = new ConcurrentHashMap<>();
+
+    /**
+     * A state published ahead of the API, handed to the caller so it can only ever fail its own command
+     */
+    static class Pending {
+        final String deviceId;
+        final State state;
+        final @Nullable State previous;
+        @Nullable
+        ScheduledFuture<?> timeout;
+
+        private Pending(String deviceId, State state, @Nullable State previous) {
+            this.deviceId = deviceId;
+            this.state = state;
+            this.previous = previous;
+        }
+
+        /**
+         * The last state the API confirmed before the command, or null if none is known
+         */
+        @Nullable
+        State getPrevious() {
+            return previous;
+        }
+    }
+
+    /**
+     * @param scheduler scheduler the timeouts run on
+     * @param reconcile called with the device id when no webhook confirmed a state in time
+     * @param timeout time to wait for a webhook
+     */
+    RachioOptimisticState(ScheduledExecutorService scheduler, Consumer<String> reconcile, Duration timeout) {
+        this.scheduler = scheduler;
+        this.reconcile = reconcile;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Record a state about to be published ahead of the API. Call it before publishing, so a poll in
+     * between cannot flip the channel back.
+     *
+     * @param published the state published before, restored if the command fails. If an earlier command
+     *            on the channel is still pending, the state that one would restore is kept instead.
+     * @return the pending entry, to pass to {@link #fail} if the command fails
+     */
+    Pending expect(String deviceId, ChannelUID channelUID, State state, @Nullable State published) {
+        // Commands of one channel arrive one after the other, so this needs no lock
+        Pending current = pending.get(channelUID);
+        Pending entry = new Pending(deviceId, state, current != null ? current.previous : published);
+        entry.timeout = scheduler.schedule(() -> expire(channelUID, entry), timeoutMillis, TimeUnit.MILLISECONDS);
+        cancel(pending.put(channelUID, entry));
+        return entry;
+    }
+
+    /**
+     * Check whether a state about to be published contradicts a pending one and must be held back. A
+     * state matching the pending one confirms it.
+     */
+    boolean overrides(ChannelUID channelUID, State state) {
+        Pending entry = pending.get(channelUID);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.state.equals(state)) {
+            if (pending.remove(channelUID, entry)) {
+                cancel(entry);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drop the pending state of a command that failed
+     *
+     * @return false if a later command or a webhook already replaced it, then there is nothing to restore
+     */
+    boolean fail(ChannelUID channelUID, Pending entry) {
+        if (pending.remove(channelUID, entry)) {
+            cancel(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drop the pending states of a device, e.g. because a webhook brought its actual state
+     *
+     * @return true if there were any
+     */
+    boolean reconcile(String deviceId) {
+        boolean found = false;
+        for (Map.Entry<ChannelUID, Pending> entry : pending.entrySet()) {
+            if (entry.getValue().deviceId.equals(deviceId) && pending.remove(entry.getKey(), entry.getValue())) {
+                cancel(entry.getValue());
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    void clear() {
+        pending.values().forEach(this::cancel);
+        pending.clear();
+    }
+
+    private void expire(ChannelUID channelUID, Pending entry) {
+        if (pending.remove(channelUID, entry)) {
+            reconcile.accept(entry.deviceId);
+        }
+    }
+
+    private void cancel(@Nullable Pending entry) {
+        ScheduledFuture<?> job = entry != null ? entry.timeout : null;
+        if (job != null) {
+            job.cancel(false);
+        }
+    }
+}
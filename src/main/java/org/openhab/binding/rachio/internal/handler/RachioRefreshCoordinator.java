@@ -0,0 +1,87 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link RachioRefreshCoordinator} debounces refresh requests per device. Every request pushes the
+ * refresh back by the quiet period, so a burst of webhook events results in a single refresh once the
+ * burst is over. The refresh is never delayed more than the maximum delay after the first request.
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+class RachioRefreshCoordinator {
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<String> refresh;
+    private final long quietNanos;
+    private final long maxDelayNanos;
+    private final Map<String, PendingRefresh> pending = new ConcurrentHashMap<>();
+
+    private static class PendingRefresh {
+        final long firstRequest = System.nanoTime();
+        @Nullable
+        ScheduledFuture<?> job;
+    }
+
+    /**
+     * @param scheduler scheduler the refreshes run on
+     * @param refresh refresh action, called with the device id
+     * @param quietPeriod time without new requests before the refresh runs
+     * @param maxDelay longest time a refresh may be pushed back by new requests
+     */
+    RachioRefreshCoordinator(ScheduledExecutorService scheduler, Consumer<String> refresh, Duration quietPeriod,
+            Duration maxDelay) {
+        this.scheduler = scheduler;
+        this.refresh = refresh;
+        this.quietNanos = quietPeriod.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    /**
+     * Request a refresh of a device, merging it with a refresh that is already pending
+     */
+    void request(String deviceId) {
+        pending.compute(deviceId, (id, current) -> {
+            PendingRefresh next = current != null ? current : new PendingRefresh();
+            ScheduledFuture<?> job = next.job;
+            if (job != null && !job.cancel(false)) {
+                // Already running, schedule a fresh refresh for changes after this point
+                next = new PendingRefresh();
+            }
+            long remaining = next.firstRequest + maxDelayNanos - System.nanoTime();
+            long delay = Math.max(0, Math.min(quietNanos, remaining));
+            PendingRefresh scheduled = next;
+            next.job = scheduler.schedule(() -> run(id, scheduled), delay, TimeUnit.NANOSECONDS);
+            return next;
+        });
+    }
+
+    /**
+     * Drop a pending refresh, e.g. because the device state is already known to be current
+     */
+    void cancel(String deviceId) {
+        PendingRefresh current = pending.remove(deviceId);
+        ScheduledFuture<?> job = current != null ? current.job : null;
+        if (job != null) {
+            job.cancel(false);
+        }
+    }
+
+    void cancelAll() {
+        pending.keySet().forEach(this::cancel);
+    }
+
+    private void run(String deviceId, PendingRefresh scheduled) {
+        pending.remove(deviceId, scheduled);
+        refresh.accept(deviceId);
+    }
+}
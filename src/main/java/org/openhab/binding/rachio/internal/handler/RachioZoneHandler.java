@@ -2,30 +2,26 @@ package org.openhab.binding.rachio.internal.handler;
 
 import static org.openhab.binding.rachio.internal.RachioBindingConstants.*;
 
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.rachio.internal.api.RachioApiException;
 import org.openhab.binding.rachio.internal.api.RachioHttp;
-import org.openhab.binding.rachio.internal.api.RachioZone;
+import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
 import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
 import org.openhab.core.thing.binding.BaseThingHandler;
 import org.openhab.core.types.Command;
+import org.openhab.core.types.RefreshType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-
 /**
  * The {@link RachioZoneHandler} is responsible for handling commands, which are
- * sent to one of the channels.
+ * sent to one of the channels. Zone state is read from the bridge's account snapshot.
  *
  * @author Damion Boyett - Initial contribution
  */
@@ -33,9 +29,6 @@ import com.google.gson.JsonObject;
 public class RachioZoneHandler extends BaseThingHandler {
     private final Logger logger = LoggerFactory.getLogger(RachioZoneHandler.class);
 
-    private @Nullable ScheduledFuture<?> refreshJob;
-    private final Gson gson = new Gson();
-
     private @Nullable String zoneId;
     private @Nullable String deviceId;
 
@@ -53,63 +46,60 @@ public class RachioZoneHandler extends BaseThingHandler {
             return;
         }
 
-        // Get device ID from bridge for API calls
-        RachioBridgeHandler bridgeHandler = (RachioBridgeHandler) getBridge().getHandler();
-        if (bridgeHandler != null) {
-            // You might need to get the device ID associated with this zone
-            // This is a simplification - you may need to adjust based on your data model
-            deviceId = "default"; // You'll need to set this properly
-        }
-
         scheduler.execute(this::initializeZone);
     }
 
     private void initializeZone() {
-        updateStatus(ThingStatus.ONLINE);
-        startRefreshJob();
-    }
-
-    private void startRefreshJob() {
-        ScheduledFuture<?> job = refreshJob;
-        if (job != null && !job.isCancelled()) {
-            job.cancel(false);
+        RachioBridgeHandler bridgeHandler = getBridgeHandler();
+        if (bridgeHandler == null) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
+            return;
         }
 
-        refreshJob = scheduler.scheduleWithFixedDelay(this::refreshZone, 1, 60, TimeUnit.SECONDS);
+        RachioAccountSnapshot snapshot = bridgeHandler.getSnapshot();
+        if (snapshot == null) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, "No account data available");
+            return;
+        }
+        snapshotUpdated(snapshot);
     }
 
-    private void refreshZone() {
+    /**
+     * Called by the bridge whenever a new account snapshot has been fetched
+     */
+    public void snapshotUpdated(RachioAccountSnapshot snapshot) {
         String localZoneId = zoneId;
         if (localZoneId == null) {
             return;
         }
 
-        RachioHttp api = getApi();
-        if (api == null) {
+        RachioPerson.Zone zone = snapshot.getZone(localZoneId);
+        if (zone == null) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.GONE, "Zone not found in Rachio account");
             return;
         }
-
-        try {
-            JsonObject zoneData = api.getZone(localZoneId);
-            if (zoneData != null) {
-                // Convert JSON to RachioZone object
-                RachioZone zone = gson.fromJson(zoneData, RachioZone.class);
-                updateZoneStatus(zone);
-                updateStatus(ThingStatus.ONLINE);
-            }
-        } catch (Exception e) {
-            logger.debug("Failed to refresh zone {}: {}", localZoneId, e.getMessage());
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
-        }
+        // The owning controller is known from the snapshot, no extra lookup needed
+        deviceId = snapshot.getDeviceIdForZone(localZoneId);
+        updateZoneStatus(zone);
+        updateStatus(ThingStatus.ONLINE);
     }
 
-    private void updateZoneStatus(RachioZone zone) {
+    private void updateZoneStatus(RachioPerson.Zone zone) {
         // Update zone channels based on zone status
         // You can add channel updates here based on zone data
     }
 
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
+        RachioBridgeHandler bridgeHandler = getBridgeHandler();
+        if (command instanceof RefreshType) {
+            RachioAccountSnapshot snapshot = bridgeHandler != null ? bridgeHandler.getSnapshot() : null;
+            if (snapshot != null) {
+                snapshotUpdated(snapshot);
+            }
+            return;
+        }
+
         String localDeviceId = deviceId;
         if (localDeviceId == null) {
             return;
@@ -128,24 +118,29 @@ public class RachioZoneHandler extends BaseThingHandler {
                 }
             }
             updateStatus(ThingStatus.ONLINE);
+            if (bridgeHandler != null) {
+                bridgeHandler.invalidateSnapshot();
+            }
         } catch (RachioApiException e) {
             logger.debug("Failed to execute command {}: {}", channelUID.getId(), e.getMessage());
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
         }
     }
 
-    private @Nullable RachioHttp getApi() {
-        RachioBridgeHandler bridgeHandler = (RachioBridgeHandler) getBridge().getHandler();
-        return bridgeHandler != null ? bridgeHandler.getApi() : null;
+    /**
+     * Get the id of the zone this thing represents, null until it is configured
+     */
+    public @Nullable String getZoneId() {
+        return zoneId;
     }
 
-    @Override
-    public void dispose() {
-        ScheduledFuture<?> job = refreshJob;
-        if (job != null && !job.isCancelled()) {
-            job.cancel(true);
-        }
-        refreshJob = null;
-        super.dispose();
+    private @Nullable RachioBridgeHandler getBridgeHandler() {
+        Bridge bridge = getBridge();
+        return bridge != null ? (RachioBridgeHandler) bridge.getHandler() : null;
+    }
+
+    private @Nullable RachioHttp getApi() {
+        RachioBridgeHandler bridgeHandler = getBridgeHandler();
+        return bridgeHandler != null ? bridgeHandler.getApi() : null;
     }
 }
@@ -0,0 +1,133 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.rachio.internal.api.RachioCircuitBreaker.State;
+
+/**
+ * Tests for {@link RachioCircuitBreaker}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioCircuitBreakerTest {
+
+    @Test
+    public void staysClosedBelowTheMinimumCalls() {
+        RachioCircuitBreaker breaker = breaker(Duration.ofHours(1));
+
+        recordFailures(breaker, 3);
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void opensAtTheFailureRateAndRejectsCalls() {
+        RachioCircuitBreaker breaker = breaker(Duration.ofHours(1));
+        recordSuccesses(breaker, 2);
+        recordFailures(breaker, 2);
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(1, breaker.getRejectedCount());
+        assertEquals(1, breaker.getOpenedCount());
+    }
+
+    @Test
+    public void oldOutcomesLeaveTheWindow() {
+        RachioCircuitBreaker breaker = breaker(Duration.ofHours(1));
+        recordFailures(breaker, 1);
+        recordSuccesses(breaker, 3);
+        // The window holds the last four calls, the early failure is gone
+        recordSuccesses(breaker, 1);
+        assertEquals(0.0, breaker.getFailureRate(), 0.001);
+
+        recordFailures(breaker, 1);
+        assertEquals(0.25, breaker.getFailureRate(), 0.001);
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenLetsExactlyOneProbeThrough() {
+        RachioCircuitBreaker breaker = breaker(Duration.ZERO);
+        recordFailures(breaker, 4);
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void successfulProbeClosesWithAFreshWindow() {
+        RachioCircuitBreaker breaker = breaker(Duration.ZERO);
+        recordFailures(breaker, 4);
+        breaker.tryAcquirePermission();
+
+        breaker.onSuccess();
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate(), 0.001);
+        // The failures before the probe no longer count
+        recordFailures(breaker, 3);
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void failedProbeOpensAgain() {
+        RachioCircuitBreaker breaker = breaker(Duration.ofMillis(50));
+        recordFailures(breaker, 4);
+        assertFalse(breaker.tryAcquirePermission());
+        sleep(100);
+
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenedCount());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void releasedProbeCanBeRetried() {
+        RachioCircuitBreaker breaker = breaker(Duration.ZERO);
+        recordFailures(breaker, 4);
+        assertTrue(breaker.tryAcquirePermission());
+
+        breaker.releasePermission();
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    /**
+     * Window of four calls, opening at 50% failures after at least four calls
+     */
+    private static RachioCircuitBreaker breaker(Duration openDuration) {
+        return new RachioCircuitBreaker("test", 4, 4, 0.5, openDuration);
+    }
+
+    private static void recordSuccesses(RachioCircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onSuccess();
+        }
+    }
+
+    private static void recordFailures(RachioCircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onFailure();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.rachio.internal.api.dto.RachioDevice;
+import org.openhab.binding.rachio.internal.api.dto.RachioEventSummary;
+import org.openhab.binding.rachio.internal.api.dto.RachioPerson;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+
+/**
+ * Tests for {@link RachioDtoTypeAdapterFactory}: the streaming readers must produce the same DTOs as
+ * Gson's reflective binding for real API payloads
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioDtoTypeAdapterFactoryTest {
+    private final Gson reflective = new Gson();
+    private final Gson streaming = new GsonBuilder().registerTypeAdapterFactory(new RachioDtoTypeAdapterFactory())
+            .create();
+
+    @Test
+    public void personMatchesReflectiveBinding() throws IOException {
+        assertSameAsReflective("person.json", RachioPerson.class);
+    }
+
+    @Test
+    public void deviceMatchesReflectiveBinding() throws IOException {
+        assertSameAsReflective("device.json", RachioDevice.class);
+    }
+
+    @Test
+    public void eventSummaryMatchesReflectiveBinding() throws IOException {
+        assertSameAsReflective("event-summary.json", RachioEventSummary.class);
+    }
+
+    @Test
+    public void nullFieldsKeepTheirDefaults() {
+        // Unlike the reflective binding, an explicit null never lands in a non-null field
+        RachioPerson person = streaming.fromJson("{\"id\":null,\"email\":null,\"devices\":null}",
+                RachioPerson.class);
+        assertNotNull(person);
+        assertEquals("", person.id);
+        assertEquals("", person.email);
+        assertNull(person.devices);
+    }
+
+    @Test
+    public void listsAreReadOnly() {
+        RachioPerson person = streaming.fromJson("{\"devices\":[{\"id\":\"a\"}]}", RachioPerson.class);
+        assertNotNull(person);
+        assertThrows(UnsupportedOperationException.class, () -> person.devices.clear());
+    }
+
+    @Test
+    public void malformedNumberIsAJsonError() {
+        assertThrows(JsonSyntaxException.class,
+                () -> streaming.fromJson("{\"zones\":[{\"runtime\":\"soon\"}]}", RachioDevice.class));
+        assertThrows(JsonSyntaxException.class,
+                () -> streaming.fromJson("{\"latitude\":\"north\"}", RachioDevice.class));
+    }
+
+    private <T> void assertSameAsReflective(String fixture, Class<T> type) throws IOException {
+        T expected = parse(reflective, fixture, type);
+        T actual = parse(streaming, fixture, type);
+        assertNotNull(actual);
+        // Compare through the reflective writer, which covers every field of the DTO
+        assertEquals(reflective.toJsonTree(expected), reflective.toJsonTree(actual));
+    }
+
+    private <T> @Nullable T parse(Gson gson, String fixture, Class<T> type) throws IOException {
+        InputStream in = getClass().getResourceAsStream(fixture);
+        assertNotNull(in, "Missing fixture " + fixture);
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, type);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
+
+/**
+ * Tests for {@link RachioImageCache}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioImageCacheTest {
+    private static final long MEMORY = 1024 * 1024;
+    private static final long DISK = 10 * 1024 * 1024;
+    private static final Duration FRESH = Duration.ofHours(1);
+
+    private @NonNullByDefault({}) Path directory;
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("rachio-image-cache-test");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void freshImageIsServedWithoutAskingTheApi() throws Exception {
+        RachioImageCache cache = new RachioImageCache(directory, MEMORY, DISK, FRESH);
+        RachioImageCache.Fetcher fetcher = fetcher(bytes(100, 1), "\"v1\"");
+
+        RachioImageCache.Entry first = cache.get("a", fetcher);
+        RachioImageCache.Entry second = cache.get("a", fetcher);
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(1, fetches.get());
+        assertArrayEquals(bytes(100, 1), read(first.getImage()));
+    }
+
+    @Test
+    public void staleImageIsRevalidated() throws Exception {
+        RachioImageCache cache = new RachioImageCache(directory, MEMORY, DISK, Duration.ZERO);
+        RachioImageCache.Entry first = cache.get("a", fetcher(bytes(100, 1), "\"v1\""));
+        assertNotNull(first);
+
+        RachioImageCache.Entry revalidated = cache.get("a", (id, cached, target) -> {
+            fetches.incrementAndGet();
+            assertSame(first.getImage(), cached);
+            // 304, the cached copy is still valid
+            return cached;
+        });
+        assertNotNull(revalidated);
+        assertSame(first.getImage(), revalidated.getImage());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void changedImageReplacesTheCachedOne() throws Exception {
+        RachioImageCache cache = new RachioImageCache(directory, MEMORY, DISK, Duration.ZERO);
+        cache.get("a", fetcher(bytes(100, 1), "\"v1\""));
+
+        RachioImageCache.Entry changed = cache.get("a", fetcher(bytes(50, 2), "\"v2\""));
+        assertNotNull(changed);
+        assertEquals("\"v2\"", changed.getImage().getEtag());
+        assertArrayEquals(bytes(50, 2), read(changed.getImage()));
+    }
+
+    @Test
+    public void staleCopyIsServedWhenTheApiFails() throws Exception {
+        RachioImageCache cache = new RachioImageCache(directory, MEMORY, DISK, Duration.ZERO);
+        RachioImageCache.Entry first = cache.get("a", fetcher(bytes(100, 1), "\"v1\""));
+
+        RachioImageCache.Entry fallback = cache.get("a", (id, cached, target) -> {
+            throw new RachioException("Service unavailable", 503);
+        });
+        assertSame(first, fallback);
+    }
+
+    @Test
+    public void failureWithoutACachedCopyIsThrown() {
+        RachioImageCache cache = new RachioImageCache(directory, MEMORY, DISK, FRESH);
+
+        assertThrows(RachioException.class, () -> cache.get("a", (id, cached, target) -> {
+            throw new RachioException("Service unavailable", 503);
+        }));
+    }
+
+    @Test
+    public void imageTheApiNoLongerKnowsIsRemoved() throws Exception {
+        RachioImageCache cache = new RachioImageCache(directory, MEMORY, DISK, Duration.ZERO);
+        cache.get("a", fetcher(bytes(100, 1), "\"v1\""));
+
+        assertNull(cache.get("a", (id, cached, target) -> null));
+        assertFalse(Files.exists(directory.resolve("a.img")));
+    }
+
+    @Test
+    public void diskTierSurvivesARestart() throws Exception {
+        new RachioImageCache(directory, MEMORY, DISK, FRESH).get("a", fetcher(bytes(100, 1), "\"v1\""));
+
+        RachioImageCache restarted = new RachioImageCache(directory, MEMORY, DISK, FRESH);
+        RachioImageCache.Entry entry = restarted.get("a", fetcher(bytes(100, 9), "\"v9\""));
+        assertNotNull(entry);
+        assertEquals(1, fetches.get());
+        assertEquals("\"v1\"", entry.getImage().getEtag());
+        assertArrayEquals(bytes(100, 1), read(entry.getImage()));
+    }
+
+    @Test
+    public void onlySmallImagesAreHeldInMemory() throws Exception {
+        RachioImageCache cache = new RachioImageCache(directory, MEMORY, DISK, FRESH);
+
+        RachioImageCache.Entry small = cache.get("small", fetcher(bytes(100, 1), null));
+        RachioImageCache.Entry large = cache.get("large",
+                fetcher(bytes(RachioImageCache.MAX_INLINE_BYTES + 1, 2), null));
+        assertNotNull(small);
+        assertNotNull(large);
+        assertTrue(small.getImage().isInMemory());
+        assertFalse(large.getImage().isInMemory());
+        assertArrayEquals(bytes(RachioImageCache.MAX_INLINE_BYTES + 1, 2), read(large.getImage()));
+    }
+
+    @Test
+    public void prunedImageIsFetchedAgain() throws Exception {
+        // Room for one large image on disk, nothing in memory
+        int size = RachioImageCache.MAX_INLINE_BYTES + 1;
+        RachioImageCache cache = new RachioImageCache(directory, 0, size, FRESH);
+        cache.get("a", fetcher(bytes(size, 1), null));
+        Thread.sleep(20);
+        cache.get("b", fetcher(bytes(size, 2), null));
+        assertFalse(Files.exists(directory.resolve("a.img")));
+        assertTrue(Files.exists(directory.resolve("b.img")));
+
+        RachioImageCache.Entry again = cache.get("a", fetcher(bytes(size, 3), null));
+        assertNotNull(again);
+        assertEquals(3, fetches.get());
+        assertArrayEquals(bytes(size, 3), read(again.getImage()));
+    }
+
+    @Test
+    public void concurrentRequestsShareOneFetch() throws Exception {
+        RachioImageCache cache = new RachioImageCache(directory, MEMORY, DISK, FRESH);
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RachioImageCache.Fetcher slow = (id, cached, target) -> {
+            fetching.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return fetcher(bytes(100, 1), null).fetch(id, cached, target);
+        };
+
+        CompletableFuture<RachioImageCache.@Nullable Entry> first = CompletableFuture
+                .supplyAsync(() -> getQuietly(cache, slow));
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        CompletableFuture<RachioImageCache.@Nullable Entry> second = CompletableFuture
+                .supplyAsync(() -> getQuietly(cache, slow));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void onlySafeIdsAreAccepted() {
+        assertTrue(RachioImageCache.isValidId("e0e1a3f8-7b3c-4a5e-9d2f-1c6b8a4e2d01"));
+        assertFalse(RachioImageCache.isValidId("../secret"));
+        assertFalse(RachioImageCache.isValidId(".hidden"));
+        assertFalse(RachioImageCache.isValidId("a/b"));
+        assertFalse(RachioImageCache.isValidId(""));
+    }
+
+    /**
+     * A fetcher that downloads the given bytes, counting its calls
+     */
+    private RachioImageCache.Fetcher fetcher(byte[] bytes, @Nullable String etag) {
+        return (id, cached, target) -> {
+            fetches.incrementAndGet();
+            try {
+                Files.write(target, bytes);
+            } catch (IOException e) {
+                throw new RachioException("Download failed", e);
+            }
+            return new RachioImage(target, bytes.length, RachioImage.DEFAULT_CONTENT_TYPE, etag, 0, null);
+        };
+    }
+
+    private static RachioImageCache.@Nullable Entry getQuietly(RachioImageCache cache,
+            RachioImageCache.Fetcher fetcher) {
+        try {
+            return cache.get("a", fetcher);
+        } catch (RachioException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] read(RachioImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RachioImage.Content content = image.open()) {
+            content.writeTo(out);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
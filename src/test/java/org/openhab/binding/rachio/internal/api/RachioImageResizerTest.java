@@ -0,0 +1,119 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RachioImageResizer}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioImageResizerTest {
+    private @NonNullByDefault({}) Path directory;
+    private @NonNullByDefault({}) Path target;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("rachio-resizer-test");
+        target = directory.resolve("target.img");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void widthKeepsTheAspectRatio() throws IOException {
+        RachioImage source = image(400, 200, false);
+
+        assertEquals("image/jpeg", RachioImageResizer.resize(source, 100, 0, target));
+        assertSize(100, 50);
+    }
+
+    @Test
+    public void heightKeepsTheAspectRatio() throws IOException {
+        RachioImage source = image(400, 200, false);
+
+        RachioImageResizer.resize(source, 0, 50, target);
+        assertSize(100, 50);
+    }
+
+    @Test
+    public void resultFitsTheBoxInBothDimensions() throws IOException {
+        RachioImage source = image(400, 200, false);
+
+        RachioImageResizer.resize(source, 300, 30, target);
+        assertSize(60, 30);
+    }
+
+    @Test
+    public void largeReductionEndsAtTheExactSize() throws IOException {
+        RachioImage source = image(2000, 1000, false);
+
+        RachioImageResizer.resize(source, 15, 0, target);
+        assertSize(15, 8);
+    }
+
+    @Test
+    public void smallImageIsNeverEnlarged() throws IOException {
+        RachioImage source = image(100, 50, false);
+
+        assertEquals(source.getContentType(), RachioImageResizer.resize(source, 400, 400, target));
+        assertArrayEquals(Files.readAllBytes(source.getFile()), Files.readAllBytes(target));
+    }
+
+    @Test
+    public void transparencyIsKeptAsPng() throws IOException {
+        RachioImage source = image(200, 200, true);
+
+        assertEquals("image/png", RachioImageResizer.resize(source, 50, 50, target));
+        BufferedImage result = ImageIO.read(target.toFile());
+        assertNotNull(result);
+        assertTrue(result.getColorModel().hasAlpha());
+    }
+
+    @Test
+    public void unreadableImageIsRejected() throws IOException {
+        Path file = directory.resolve("broken.img");
+        Files.write(file, new byte[] { 1, 2, 3, 4 });
+        RachioImage source = new RachioImage(file, 4, RachioImage.DEFAULT_CONTENT_TYPE, null, 0, null);
+
+        assertThrows(IOException.class, () -> RachioImageResizer.resize(source, 10, 10, target));
+    }
+
+    private RachioImage image(int width, int height, boolean alpha) throws IOException {
+        BufferedImage image = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, alpha ? (x % 2 == 0 ? 0x80ff0000 : 0x00000000) : x * 0x010203 + y);
+            }
+        }
+        Path file = directory.resolve("source-" + width + "x" + height + ".img");
+        ImageIO.write(image, alpha ? "png" : "jpg", file.toFile());
+        return new RachioImage(file, Files.size(file), alpha ? "image/png" : RachioImage.DEFAULT_CONTENT_TYPE, null,
+                0, null);
+    }
+
+    private void assertSize(int width, int height) throws IOException {
+        BufferedImage result = ImageIO.read(target.toFile());
+        assertNotNull(result);
+        assertEquals(width, result.getWidth());
+        assertEquals(height, result.getHeight());
+    }
+}
@@ -0,0 +1,120 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RachioImage}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioImageTest {
+    private @NonNullByDefault({}) Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("rachio-image-test");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void inMemoryImageIsServedFromMemory() throws IOException {
+        byte[] bytes = { 1, 2, 3 };
+        RachioImage image = new RachioImage(directory.resolve("missing.img"), 3, RachioImage.DEFAULT_CONTENT_TYPE,
+                null, 0, bytes);
+
+        try (RachioImage.Content content = image.open()) {
+            assertEquals(3, content.getLength());
+            assertArrayEquals(bytes, serve(content));
+        }
+    }
+
+    @Test
+    public void replacedFileIsServedAsOpened() throws IOException {
+        byte[] original = bytes(4096, 1);
+        RachioImage image = write("a.img", original);
+
+        try (RachioImage.Content content = image.open()) {
+            // The cache installs a new version of different size while the old one is being served
+            Path replacement = directory.resolve("a.tmp");
+            Files.write(replacement, bytes(100, 2));
+            Files.move(replacement, image.getFile(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+
+            assertEquals(original.length, content.getLength());
+            assertArrayEquals(original, serve(content));
+        }
+    }
+
+    @Test
+    public void deletedFileIsServedAsOpened() throws IOException {
+        byte[] original = bytes(4096, 3);
+        RachioImage image = write("b.img", original);
+
+        try (RachioImage.Content content = image.open()) {
+            Files.delete(image.getFile());
+
+            assertEquals(original.length, content.getLength());
+            assertArrayEquals(original, serve(content));
+        }
+    }
+
+    @Test
+    public void lengthComesFromTheFileNotTheDescription() throws IOException {
+        byte[] original = bytes(2048, 4);
+        Path file = directory.resolve("c.img");
+        Files.write(file, original);
+        RachioImage image = new RachioImage(file, 10, RachioImage.DEFAULT_CONTENT_TYPE, null, 0, null);
+
+        try (RachioImage.Content content = image.open()) {
+            assertEquals(original.length, content.getLength());
+            assertArrayEquals(original, serve(content));
+        }
+    }
+
+    @Test
+    public void prunedFileCannotBeOpened() throws IOException {
+        RachioImage image = write("d.img", bytes(10, 5));
+        Files.delete(image.getFile());
+
+        assertThrows(NoSuchFileException.class, image::open);
+    }
+
+    private RachioImage write(String name, byte[] bytes) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, bytes);
+        return new RachioImage(file, bytes.length, RachioImage.DEFAULT_CONTENT_TYPE, null,
+                Files.getLastModifiedTime(file).toMillis(), null);
+    }
+
+    private static byte[] serve(RachioImage.Content content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        content.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
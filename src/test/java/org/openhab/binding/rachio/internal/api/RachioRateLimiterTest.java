@@ -0,0 +1,118 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.rachio.internal.api.RachioRateLimiter.Lane;
+
+/**
+ * Tests for {@link RachioRateLimiter}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioRateLimiterTest {
+    private static final String KEY = "key";
+    // Refills so slowly that no token comes back while a test runs
+    private static final Duration PERIOD = Duration.ofDays(365);
+
+    @Test
+    public void pollingStopsAtTheCommandReserve() {
+        RachioRateLimiter limiter = new RachioRateLimiter(5, PERIOD, 2);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(KEY, Lane.POLL));
+        }
+        assertTrue(limiter.tryAcquire(KEY, Lane.POLL) > 0);
+        assertEquals(2, limiter.getAvailableTokens(KEY));
+    }
+
+    @Test
+    public void commandsMayUseTheReserve() {
+        RachioRateLimiter limiter = new RachioRateLimiter(5, PERIOD, 2);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(KEY, Lane.POLL);
+        }
+
+        assertEquals(0, limiter.tryAcquire(KEY, Lane.COMMAND));
+        assertEquals(0, limiter.tryAcquire(KEY, Lane.COMMAND));
+        assertTrue(limiter.tryAcquire(KEY, Lane.COMMAND) > 0);
+    }
+
+    @Test
+    public void waitMatchesTheRefillRate() {
+        RachioRateLimiter limiter = new RachioRateLimiter(1, Duration.ofHours(1), 0);
+        limiter.tryAcquire(KEY, Lane.COMMAND);
+
+        long wait = limiter.tryAcquire(KEY, Lane.COMMAND);
+        assertTrue(wait > Duration.ofMinutes(59).toNanos(), "wait " + wait);
+        assertTrue(wait <= Duration.ofHours(1).toNanos(), "wait " + wait);
+    }
+
+    @Test
+    public void waitDoesNotTakeTokens() {
+        RachioRateLimiter limiter = new RachioRateLimiter(3, PERIOD, 0);
+        limiter.tryAcquire(KEY, Lane.COMMAND);
+
+        assertEquals(0, limiter.getWaitNanos(KEY, Lane.COMMAND, 2));
+        assertTrue(limiter.getWaitNanos(KEY, Lane.COMMAND, 3) > 0);
+        assertEquals(2, limiter.getAvailableTokens(KEY));
+    }
+
+    @Test
+    public void keysHaveTheirOwnBuckets() {
+        RachioRateLimiter limiter = new RachioRateLimiter(1, PERIOD, 0);
+
+        assertEquals(0, limiter.tryAcquire(KEY, Lane.COMMAND));
+        assertEquals(0, limiter.tryAcquire("other", Lane.COMMAND));
+        assertTrue(limiter.tryAcquire(KEY, Lane.COMMAND) > 0);
+    }
+
+    @Test
+    public void exhaustEmptiesTheBucket() {
+        RachioRateLimiter limiter = new RachioRateLimiter(10, PERIOD, 0);
+        limiter.tryAcquire(KEY, Lane.COMMAND);
+
+        limiter.exhaust(KEY);
+        assertEquals(0, limiter.getAvailableTokens(KEY));
+        assertTrue(limiter.tryAcquire(KEY, Lane.COMMAND) > 0);
+    }
+
+    @Test
+    public void reportedQuotaOnlyLowersTheBucketWithinAWindow() {
+        RachioRateLimiter limiter = new RachioRateLimiter(10, PERIOD, 0);
+        Instant reset = Instant.now().plusSeconds(600);
+
+        limiter.update(KEY, 4, reset);
+        assertEquals(4, limiter.getAvailableTokens(KEY));
+        limiter.update(KEY, 8, reset);
+        assertEquals(4, limiter.getAvailableTokens(KEY));
+        assertEquals(reset, limiter.getResetTime(KEY));
+    }
+
+    @Test
+    public void newQuotaWindowRestoresTheReportedBudget() {
+        RachioRateLimiter limiter = new RachioRateLimiter(10, PERIOD, 0);
+        Instant reset = Instant.now().plusSeconds(600);
+        limiter.update(KEY, 1, reset);
+
+        limiter.update(KEY, 9, reset.plusSeconds(3600));
+        assertEquals(9, limiter.getAvailableTokens(KEY));
+
+        limiter.update(KEY, 50, reset.plusSeconds(7200));
+        assertEquals(10, limiter.getAvailableTokens(KEY));
+    }
+
+    @Test
+    public void unknownKeyHasAFullBucket() {
+        RachioRateLimiter limiter = new RachioRateLimiter(10, PERIOD, 2);
+
+        assertEquals(10, limiter.getAvailableTokens(KEY));
+        assertEquals(0, limiter.getWaitNanos(KEY, Lane.POLL, 1));
+        assertNull(limiter.getResetTime(KEY));
+    }
+}
@@ -0,0 +1,87 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RachioResponseCache}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioResponseCacheTest {
+
+    @Test
+    public void responseWithAValidatorIsKept() {
+        RachioResponseCache cache = new RachioResponseCache(10);
+        Object value = new Object();
+
+        cache.put("key", "/person/info", "\"etag\"", null, value);
+        RachioResponseCache.Entry entry = cache.get("key", "/person/info");
+        assertNotNull(entry);
+        assertEquals("\"etag\"", entry.etag);
+        assertNull(entry.lastModified);
+        assertSame(value, entry.value);
+    }
+
+    @Test
+    public void responseWithoutValidatorsIsNotKept() {
+        RachioResponseCache cache = new RachioResponseCache(10);
+
+        cache.put("key", "/person/info", null, null, new Object());
+        assertNull(cache.get("key", "/person/info"));
+    }
+
+    @Test
+    public void entriesAreKeptPerApiKey() {
+        RachioResponseCache cache = new RachioResponseCache(10);
+        cache.put("key", "/device/a", null, "Wed, 29 May 2024 06:00:00 GMT", "mine");
+        cache.put("other", "/device/a", null, "Wed, 29 May 2024 06:00:00 GMT", "theirs");
+
+        cache.remove("key");
+        assertNull(cache.get("key", "/device/a"));
+        RachioResponseCache.Entry entry = cache.get("other", "/device/a");
+        assertNotNull(entry);
+        assertEquals("theirs", entry.value);
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        RachioResponseCache cache = new RachioResponseCache(2);
+        cache.put("key", "/a", "1", null, "a");
+        cache.put("key", "/b", "1", null, "b");
+        cache.get("key", "/a");
+
+        cache.put("key", "/c", "1", null, "c");
+        assertNotNull(cache.get("key", "/a"));
+        assertNull(cache.get("key", "/b"));
+        assertNotNull(cache.get("key", "/c"));
+    }
+
+    @Test
+    public void singleEntryCanBeRemoved() {
+        RachioResponseCache cache = new RachioResponseCache(10);
+        cache.put("key", "/a", "1", null, "a");
+        cache.put("key", "/b", "1", null, "b");
+
+        cache.remove("key", "/a");
+        assertNull(cache.get("key", "/a"));
+        assertNotNull(cache.get("key", "/b"));
+    }
+
+    @Test
+    public void hitRatioCountsNotModifiedAnswers() {
+        RachioResponseCache cache = new RachioResponseCache(10);
+        assertEquals(0.0, cache.getHitRatio(), 0.001);
+
+        cache.recordConditionalRequest(true);
+        cache.recordConditionalRequest(true);
+        cache.recordConditionalRequest(false);
+        cache.recordConditionalRequest(true);
+        assertEquals(4, cache.getConditionalRequests());
+        assertEquals(3, cache.getNotModifiedCount());
+        assertEquals(0.75, cache.getHitRatio(), 0.001);
+    }
+}
@@ -0,0 +1,70 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RachioRetryBudget}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioRetryBudgetTest {
+    private static final String KEY = "key";
+
+    @Test
+    public void savedRetriesAreSpentFirst() {
+        RachioRetryBudget budget = new RachioRetryBudget(0.2, 3);
+
+        assertTrue(budget.tryAcquire(KEY));
+        assertTrue(budget.tryAcquire(KEY));
+        assertTrue(budget.tryAcquire(KEY));
+        assertFalse(budget.tryAcquire(KEY));
+    }
+
+    @Test
+    public void requestsEarnRetriesAtTheRatio() {
+        RachioRetryBudget budget = new RachioRetryBudget(0.25, 1);
+        budget.tryAcquire(KEY);
+
+        for (int i = 0; i < 3; i++) {
+            budget.recordRequest(KEY);
+            assertFalse(budget.tryAcquire(KEY));
+        }
+        budget.recordRequest(KEY);
+        assertTrue(budget.tryAcquire(KEY));
+        assertFalse(budget.tryAcquire(KEY));
+    }
+
+    @Test
+    public void savingsAreCapped() {
+        RachioRetryBudget budget = new RachioRetryBudget(1, 2);
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest(KEY);
+        }
+
+        assertTrue(budget.tryAcquire(KEY));
+        assertTrue(budget.tryAcquire(KEY));
+        assertFalse(budget.tryAcquire(KEY));
+    }
+
+    @Test
+    public void keysHaveTheirOwnBudget() {
+        RachioRetryBudget budget = new RachioRetryBudget(0.2, 1);
+
+        assertTrue(budget.tryAcquire(KEY));
+        assertFalse(budget.tryAcquire(KEY));
+        assertTrue(budget.tryAcquire("other"));
+    }
+
+    @Test
+    public void removedKeyStartsOverWithFullSavings() {
+        RachioRetryBudget budget = new RachioRetryBudget(0.2, 1);
+        budget.tryAcquire(KEY);
+
+        budget.remove(KEY);
+        assertTrue(budget.tryAcquire(KEY));
+    }
+}
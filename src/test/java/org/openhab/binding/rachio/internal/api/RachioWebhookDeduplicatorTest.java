@@ -0,0 +1,126 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.rachio.internal.api.dto.RachioWebhookEvent;
+
+/**
+ * Tests for {@link RachioWebhookDeduplicator}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioWebhookDeduplicatorTest {
+    private static final Duration LONG_WINDOW = Duration.ofHours(1);
+
+    @Test
+    public void secondDeliveryIsADuplicate() {
+        RachioWebhookDeduplicator deduplicator = new RachioWebhookDeduplicator(16, LONG_WINDOW);
+
+        assertFalse(deduplicator.isDuplicate(event("a")));
+        assertTrue(deduplicator.isDuplicate(event("a")));
+        assertFalse(deduplicator.isDuplicate(event("b")));
+        assertEquals(1, deduplicator.getDuplicateCount());
+        assertEquals(2, deduplicator.size());
+    }
+
+    @Test
+    public void oldestEventIsForgottenWhenTheRingWrapsAround() {
+        RachioWebhookDeduplicator deduplicator = new RachioWebhookDeduplicator(4, LONG_WINDOW);
+        for (int i = 0; i < 10; i++) {
+            assertFalse(deduplicator.isDuplicate(event("e" + i)));
+        }
+        assertEquals(4, deduplicator.size());
+
+        for (int i = 6; i < 10; i++) {
+            assertTrue(deduplicator.isDuplicate(event("e" + i)), "e" + i);
+        }
+        // Checking duplicates remembers nothing new, so the ring still holds e6..e9
+        assertFalse(deduplicator.isDuplicate(event("e5")));
+        assertFalse(deduplicator.isDuplicate(event("e6")));
+    }
+
+    @Test
+    public void lookupsStayCorrectAfterManyWraparounds() {
+        RachioWebhookDeduplicator deduplicator = new RachioWebhookDeduplicator(8, LONG_WINDOW);
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(deduplicator.isDuplicate(event("e" + i)), "e" + i);
+            // Every event still in the ring is found, duplicates are not remembered again
+            for (int j = Math.max(0, i - 7); j <= i; j++) {
+                assertTrue(deduplicator.isDuplicate(event("e" + j)), "e" + j + " after e" + i);
+            }
+        }
+        assertEquals(8, deduplicator.size());
+        assertFalse(deduplicator.isDuplicate(event("e9991")));
+    }
+
+    @Test
+    public void eventsExpireAfterTheWindow() throws InterruptedException {
+        RachioWebhookDeduplicator deduplicator = new RachioWebhookDeduplicator(16, Duration.ofMillis(50));
+        deduplicator.isDuplicate(event("a"));
+
+        Thread.sleep(100);
+        assertFalse(deduplicator.isDuplicate(event("a")));
+        assertEquals(1, deduplicator.size());
+    }
+
+    @Test
+    public void eventsWithoutIdAreIdentifiedByTheirFields() {
+        RachioWebhookDeduplicator deduplicator = new RachioWebhookDeduplicator(16, LONG_WINDOW);
+
+        assertFalse(deduplicator.isDuplicate(zoneEvent("zone1", "STARTED")));
+        assertTrue(deduplicator.isDuplicate(zoneEvent("zone1", "STARTED")));
+        assertFalse(deduplicator.isDuplicate(zoneEvent("zone1", "COMPLETED")));
+        assertFalse(deduplicator.isDuplicate(zoneEvent("zone2", "STARTED")));
+    }
+
+    @Test
+    public void fieldsAreSeparatedInTheFingerprint() {
+        RachioWebhookEvent first = zoneEvent("ab", "c");
+        RachioWebhookEvent second = zoneEvent("a", "bc");
+
+        assertNotEquals(RachioWebhookDeduplicator.fingerprint(first), RachioWebhookDeduplicator.fingerprint(second));
+    }
+
+    @Test
+    public void nullFieldsAreTolerated() {
+        RachioWebhookDeduplicator deduplicator = new RachioWebhookDeduplicator(16, LONG_WINDOW);
+        RachioWebhookEvent event = event(null);
+        event.eventType = nullString();
+        event.timestamp = nullString();
+
+        assertFalse(deduplicator.isDuplicate(event));
+        assertTrue(deduplicator.isDuplicate(event));
+    }
+
+    private static RachioWebhookEvent event(@Nullable String id) {
+        RachioWebhookEvent event = new RachioWebhookEvent();
+        event.id = id != null ? id : nullString();
+        event.deviceId = "device";
+        event.timestamp = "2024-05-29T06:00:00.000Z";
+        return event;
+    }
+
+    private static RachioWebhookEvent zoneEvent(String zoneId, String status) {
+        RachioWebhookEvent event = event("");
+        event.eventType = "ZONE_STATUS";
+        RachioWebhookEvent.WebhookZone zone = new RachioWebhookEvent.WebhookZone();
+        zone.id = zoneId;
+        zone.status = status;
+        event.zone = zone;
+        return event;
+    }
+
+    /**
+     * What Gson leaves in a non-null field when the payload sends null
+     */
+    @SuppressWarnings("null")
+    private static String nullString() {
+        return null;
+    }
+}
@@ -0,0 +1,153 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.rachio.internal.RachioBindingConstants.BINDING_ID;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.rachio.internal.api.dto.RachioWebhookEvent;
+import org.openhab.binding.rachio.internal.handler.RachioHandler;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests for {@link RachioWebhookQueue}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class RachioWebhookQueueTest {
+    private static final long TIMEOUT_MS = 5000;
+
+    private @Mock @NonNullByDefault({}) RachioHandler handler;
+    private @Mock @NonNullByDefault({}) Thing thing;
+
+    private final RachioWebhookRouter router = new RachioWebhookRouter();
+    private final List<RachioWebhookEvent> handled = new CopyOnWriteArrayList<>();
+    private @NonNullByDefault({}) RachioWebhookQueue queue;
+
+    @BeforeEach
+    public void setUp() {
+        when(thing.getUID()).thenReturn(new ThingUID(BINDING_ID, "controller", "test"));
+        when(handler.getThing()).thenReturn(thing);
+        doAnswer(invocation -> handled.add(invocation.getArgument(0))).when(handler)
+                .handleWebhookEvent(any(RachioWebhookEvent.class));
+        queue = new RachioWebhookQueue(router);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        queue.deactivate();
+    }
+
+    @Test
+    public void eventsAreAppliedInArrivalOrder() throws InterruptedException {
+        router.register(handler, Set.of("device"));
+        List<RachioWebhookEvent> events = List.of(event("1"), event("2"), event("3"));
+        events.forEach(queue::offer);
+
+        awaitHandled(3);
+        assertEquals(events, handled);
+        assertEquals(3, queue.getAcceptedCount());
+        assertEquals(3, queue.getProcessedCount());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void duplicateIsAcknowledgedButAppliedOnce() throws InterruptedException {
+        router.register(handler, Set.of("device"));
+
+        assertTrue(queue.offer(event("1")));
+        assertTrue(queue.offer(event("1")));
+        assertTrue(queue.offer(event("2")));
+
+        awaitHandled(2);
+        assertEquals(List.of("1", "2"), handled.stream().map(e -> e.id).toList());
+        assertEquals(1, queue.getDuplicateCount());
+    }
+
+    @Test
+    public void parkedEventIsAppliedOnceItsHandlerRegisters() throws InterruptedException {
+        RachioWebhookEvent event = event("1");
+        queue.offer(event);
+        awaitProcessed(1);
+        assertTrue(handled.isEmpty());
+
+        router.register(handler, Set.of("device"));
+        awaitHandled(1);
+        assertEquals(List.of(event), handled);
+    }
+
+    @Test
+    public void fullQueueDropsEventsWithoutRememberingThem() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            blocked.countDown();
+            release.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return handled.add(invocation.getArgument(0));
+        }).when(handler).handleWebhookEvent(any(RachioWebhookEvent.class));
+        router.register(handler, Set.of("device"));
+
+        // The consumer takes the first event and blocks on it, the next ones fill the queue
+        queue.offer(event("first"));
+        assertTrue(blocked.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(queue.offer(event("e" + i)));
+        }
+        RachioWebhookEvent overflow = event("overflow");
+        assertFalse(queue.offer(overflow));
+        assertEquals(1, queue.getDroppedCount());
+
+        release.countDown();
+        awaitHandled(1001);
+        // The dropped event was never remembered, so its redelivery is accepted
+        assertTrue(queue.offer(overflow));
+        awaitHandled(1002);
+        assertEquals(0, queue.getDuplicateCount());
+    }
+
+    private void awaitHandled(int count) throws InterruptedException {
+        await(() -> handled.size() >= count);
+    }
+
+    private void awaitProcessed(long count) throws InterruptedException {
+        await(() -> queue.getProcessedCount() >= count);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for the webhook queue");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static RachioWebhookEvent event(String id) {
+        RachioWebhookEvent event = new RachioWebhookEvent();
+        event.id = id;
+        event.deviceId = "device";
+        event.eventType = "ZONE_STATUS";
+        return event;
+    }
+}
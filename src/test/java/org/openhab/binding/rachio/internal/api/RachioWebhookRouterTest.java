@@ -0,0 +1,139 @@
+package org.openhab.binding.rachio.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.rachio.internal.RachioBindingConstants.BINDING_ID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.rachio.internal.api.dto.RachioWebhookEvent;
+import org.openhab.binding.rachio.internal.handler.RachioHandler;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests for {@link RachioWebhookRouter}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class RachioWebhookRouterTest {
+    private @Mock @NonNullByDefault({}) RachioHandler handler;
+    private @Mock @NonNullByDefault({}) RachioHandler otherHandler;
+    private @Mock @NonNullByDefault({}) Thing thing;
+
+    private final RachioWebhookRouter router = new RachioWebhookRouter();
+    private final List<RachioWebhookEvent> replayed = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        when(thing.getUID()).thenReturn(new ThingUID(BINDING_ID, "controller", "test"));
+        when(handler.getThing()).thenReturn(thing);
+        when(otherHandler.getThing()).thenReturn(thing);
+        router.setReplay(replayed::add);
+    }
+
+    @Test
+    public void eventsAreRoutedByDevice() {
+        router.register(handler, Set.of("a", "b"));
+        router.register(otherHandler, Set.of("c"));
+
+        assertSame(handler, router.routeOrPark(event("a")));
+        assertSame(handler, router.routeOrPark(event("b")));
+        assertSame(otherHandler, router.routeOrPark(event("c")));
+    }
+
+    @Test
+    public void registeringAgainReplacesTheDevicesOfAHandler() {
+        router.register(handler, Set.of("a", "b"));
+        router.register(handler, Set.of("b"));
+
+        assertNull(router.routeOrPark(event("a")));
+        assertSame(handler, router.routeOrPark(event("b")));
+    }
+
+    @Test
+    public void unregisterRemovesDeviceAndImageRoutes() {
+        router.register(handler, Set.of("a"));
+        router.registerImages(handler, Set.of("image"));
+        router.register(otherHandler, Set.of("c"));
+
+        router.unregister(handler);
+        assertNull(router.routeOrPark(event("a")));
+        assertNull(router.routeImage("image"));
+        assertSame(otherHandler, router.routeOrPark(event("c")));
+    }
+
+    @Test
+    public void imagesAreRoutedToTheOwningAccount() {
+        router.registerImages(handler, Set.of("x", "y"));
+        router.registerImages(handler, Set.of("y"));
+
+        assertNull(router.routeImage("x"));
+        assertSame(handler, router.routeImage("y"));
+    }
+
+    @Test
+    public void parkedEventsAreReplayedInOrderWhenTheirDeviceRegisters() {
+        RachioWebhookEvent first = event("a");
+        RachioWebhookEvent other = event("b");
+        RachioWebhookEvent second = event("a");
+        assertNull(router.routeOrPark(first));
+        assertNull(router.routeOrPark(other));
+        assertNull(router.routeOrPark(second));
+
+        router.register(handler, Set.of("a"));
+        assertEquals(List.of(first, second), replayed);
+
+        // Replayed events are no longer parked, the other device's event still is
+        router.register(handler, Set.of("a"));
+        assertEquals(2, replayed.size());
+        router.register(otherHandler, Set.of("b"));
+        assertEquals(List.of(first, second, other), replayed);
+    }
+
+    @Test
+    public void eventsStayParkedWithoutAReplayTarget() {
+        router.setReplay(null);
+        RachioWebhookEvent event = event("a");
+        router.routeOrPark(event);
+
+        router.register(handler, Set.of("b"));
+        router.setReplay(replayed::add);
+        router.register(handler, Set.of("a"));
+        assertEquals(List.of(event), replayed);
+    }
+
+    @Test
+    public void fullParkingBufferDropsTheOldestEvent() {
+        List<RachioWebhookEvent> parked = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            RachioWebhookEvent event = event("a");
+            event.id = "e" + i;
+            parked.add(event);
+            router.routeOrPark(event);
+        }
+
+        router.register(handler, Set.of("a"));
+        assertEquals(parked.subList(1, 101), replayed);
+    }
+
+    private static RachioWebhookEvent event(String deviceId) {
+        RachioWebhookEvent event = new RachioWebhookEvent();
+        event.deviceId = deviceId;
+        event.eventType = "ZONE_STATUS";
+        return event;
+    }
+}
@@ -0,0 +1,65 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.openhab.binding.rachio.internal.RachioBindingConstants.BINDING_ID;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests for {@link RachioChannelStateCache}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioChannelStateCacheTest {
+    private static final ThingUID THING_UID = new ThingUID(BINDING_ID, "controller", "test");
+    private static final ChannelUID STATUS = new ChannelUID(THING_UID, "device_status");
+    private static final ChannelUID POWER = new ChannelUID(THING_UID, "device_power");
+
+    private final RachioChannelStateCache cache = new RachioChannelStateCache();
+
+    @Test
+    public void onlyChangesArePublished() {
+        assertTrue(cache.update(STATUS, new StringType("ONLINE")));
+        assertFalse(cache.update(STATUS, new StringType("ONLINE")));
+        assertTrue(cache.update(STATUS, new StringType("OFFLINE")));
+
+        assertEquals(2, cache.getPublishedCount());
+        assertEquals(1, cache.getSuppressedCount());
+        assertEquals(new StringType("OFFLINE"), cache.get(STATUS));
+    }
+
+    @Test
+    public void channelsAreTrackedSeparately() {
+        cache.update(STATUS, new StringType("ONLINE"));
+
+        assertTrue(cache.update(POWER, OnOffType.ON));
+        assertFalse(cache.update(STATUS, new StringType("ONLINE")));
+        assertNull(cache.get(new ChannelUID(THING_UID, "device_stopWatering")));
+    }
+
+    @Test
+    public void invalidatedChannelIsPublishedAgain() {
+        cache.update(POWER, OnOffType.ON);
+
+        cache.invalidate(POWER);
+        assertNull(cache.get(POWER));
+        assertTrue(cache.update(POWER, OnOffType.ON));
+        assertFalse(cache.update(POWER, OnOffType.ON));
+    }
+
+    @Test
+    public void clearForgetsEveryChannel() {
+        cache.update(STATUS, new StringType("ONLINE"));
+        cache.update(POWER, OnOffType.ON);
+
+        cache.clear();
+        assertTrue(cache.update(STATUS, new StringType("ONLINE")));
+        assertTrue(cache.update(POWER, OnOffType.ON));
+    }
+}
@@ -0,0 +1,141 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.rachio.internal.api.RachioHttp;
+import org.openhab.binding.rachio.internal.api.RachioJson;
+import org.openhab.binding.rachio.internal.api.dto.RachioException;
+
+/**
+ * Tests for {@link RachioCommandBatcher}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioCommandBatcherTest {
+    private static final String THING_ID = "rachio:cloud:test";
+    private static final String DEVICE_ID = "device";
+    private static final Duration WINDOW = Duration.ofMillis(100);
+
+    private final RecordingHttp api = new RecordingHttp();
+    private final RachioCommandBatcher batcher = new RachioCommandBatcher(api, THING_ID, WINDOW);
+
+    /**
+     * Records the requests instead of sending them
+     */
+    private static class RecordingHttp extends RachioHttp {
+        final List<String> requests = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+
+        RecordingHttp() {
+            super(new RachioJson());
+        }
+
+        @Override
+        public void startZone(String thingId, String zoneId, int durationSeconds) throws RachioException {
+            record("start " + zoneId + "=" + durationSeconds);
+        }
+
+        @Override
+        public void startZones(String thingId, Map<String, Integer> zoneDurations) throws RachioException {
+            record("start " + zoneDurations);
+        }
+
+        @Override
+        public void stopWatering(String thingId, String deviceId) throws RachioException {
+            record("stop " + deviceId);
+        }
+
+        private void record(String request) throws RachioException {
+            if (failing) {
+                throw new RachioException("Service unavailable", 503);
+            }
+            requests.add(request);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        batcher.cancelAll();
+        api.deactivate();
+    }
+
+    @Test
+    public void startsWithinTheWindowAreSentTogether() throws Exception {
+        CompletableFuture<@Nullable Void> first = batcher.startZone(DEVICE_ID, "a", 60);
+        CompletableFuture<@Nullable Void> second = batcher.startZone(DEVICE_ID, "b", 120);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertSame(first, second);
+        assertEquals(List.of("start {a=60, b=120}"), api.requests);
+    }
+
+    @Test
+    public void zoneStartedTwiceRunsOnceWithTheLastDuration() throws Exception {
+        batcher.startZone(DEVICE_ID, "a", 60);
+        batcher.startZone(DEVICE_ID, "a", 300).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("start a=300"), api.requests);
+    }
+
+    @Test
+    public void stopSupersedesPendingStarts() throws Exception {
+        CompletableFuture<@Nullable Void> start = batcher.startZone(DEVICE_ID, "a", 60);
+        batcher.stopWatering(DEVICE_ID).get(5, TimeUnit.SECONDS);
+        Thread.sleep(WINDOW.toMillis() * 3);
+
+        assertTrue(start.isCancelled());
+        assertThrows(CancellationException.class, () -> start.get());
+        assertEquals(List.of("stop " + DEVICE_ID), api.requests);
+    }
+
+    @Test
+    public void startsAfterAStopAreSentAgain() throws Exception {
+        batcher.startZone(DEVICE_ID, "a", 60);
+        batcher.stopWatering(DEVICE_ID).get(5, TimeUnit.SECONDS);
+        batcher.startZone(DEVICE_ID, "b", 60).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("stop " + DEVICE_ID, "start b=60"), api.requests);
+    }
+
+    @Test
+    public void failedStartIsReported() {
+        api.failing = true;
+        CompletableFuture<@Nullable Void> start = batcher.startZone(DEVICE_ID, "a", 60);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> start.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RachioException);
+    }
+
+    @Test
+    public void failedStopIsReportedAndTheNextStopIsSent() throws Exception {
+        api.failing = true;
+        CompletableFuture<@Nullable Void> stop = batcher.stopWatering(DEVICE_ID);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> stop.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RachioException);
+
+        api.failing = false;
+        batcher.stopWatering(DEVICE_ID).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("stop " + DEVICE_ID), api.requests);
+    }
+
+    @Test
+    public void invalidDurationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> batcher.startZone(DEVICE_ID, "a", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> batcher.startZone(DEVICE_ID, "a", RachioHttp.MAX_ZONE_DURATION + 1));
+    }
+}
@@ -0,0 +1,112 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.rachio.internal.api.dto.RachioEventSummary;
+
+/**
+ * Tests for {@link RachioEventHistory}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioEventHistoryTest {
+    private static final String DEVICE = "device";
+    private static final long NOW = Instant.now().toEpochMilli();
+
+    private final RachioEventHistory history = new RachioEventHistory(3, Duration.ofDays(1));
+
+    @Test
+    public void firstFetchReachesBackTheInitialWindow() {
+        long start = history.getStartTime(DEVICE);
+
+        long expected = NOW - Duration.ofDays(1).toMillis();
+        assertTrue(Math.abs(start - expected) < Duration.ofMinutes(1).toMillis(), "start " + start);
+    }
+
+    @Test
+    public void nextFetchStartsAtTheNewestEvent() {
+        history.merge(DEVICE, List.of(event("a", NOW - 2000), event("b", NOW - 1000)));
+
+        assertEquals(NOW - 1000, history.getStartTime(DEVICE));
+        RachioEventSummary.Event latest = history.getLatestEvent(DEVICE);
+        assertNotNull(latest);
+        assertEquals("b", latest.id);
+    }
+
+    @Test
+    public void eventsAtTheHighWaterMarkAreNotCountedTwice() {
+        assertEquals(2, history.merge(DEVICE, List.of(event("a", NOW - 1000), event("b", NOW - 1000))));
+
+        // The next fetch starts at the high water mark and returns both again, next to a new event there
+        assertEquals(1, history.merge(DEVICE,
+                List.of(event("a", NOW - 1000), event("b", NOW - 1000), event("c", NOW - 1000))));
+        assertEquals(0, history.merge(DEVICE, List.of(event("c", NOW - 1000))));
+    }
+
+    @Test
+    public void eventsAreMergedInTimeOrder() {
+        history.merge(DEVICE, List.of(event("late", NOW - 1000), event("early", NOW - 3000)));
+
+        RachioEventSummary.Event latest = history.getLatestEvent(DEVICE);
+        assertNotNull(latest);
+        assertEquals("late", latest.id);
+        // Older than what is known now
+        assertEquals(0, history.merge(DEVICE, List.of(event("earlier", NOW - 2000))));
+    }
+
+    @Test
+    public void eventsBeforeTheInitialWindowAreIgnored() {
+        assertEquals(0, history.merge(DEVICE, List.of(event("old", NOW - Duration.ofDays(2).toMillis()))));
+        assertNull(history.getLatestEvent(DEVICE));
+    }
+
+    @Test
+    public void unreadableTimestampsAreSkipped() {
+        RachioEventSummary.Event broken = event("broken", 0);
+        broken.timestamp = "yesterday";
+
+        assertEquals(1, history.merge(DEVICE, List.of(broken, event("a", NOW - 1000))));
+        RachioEventSummary.Event latest = history.getLatestEvent(DEVICE);
+        assertNotNull(latest);
+        assertEquals("a", latest.id);
+    }
+
+    @Test
+    public void ringKeepsTheNewestEvents() {
+        assertEquals(5, history.merge(DEVICE, List.of(event("1", NOW - 5000), event("2", NOW - 4000),
+                event("3", NOW - 3000), event("4", NOW - 2000), event("5", NOW - 1000))));
+
+        RachioEventSummary.Event latest = history.getLatestEvent(DEVICE);
+        assertNotNull(latest);
+        assertEquals("5", latest.id);
+    }
+
+    @Test
+    public void devicesHaveTheirOwnHistory() {
+        history.merge(DEVICE, List.of(event("a", NOW - 1000)));
+
+        assertNull(history.getLatestEvent("other"));
+        assertTrue(history.getStartTime("other") < NOW - 1000);
+    }
+
+    @Test
+    public void timestampsAreReadAsEpochMillisOrIso() {
+        assertEquals(1716962400000L, RachioEventHistory.parseTimestamp("1716962400000"));
+        assertEquals(1716962400000L, RachioEventHistory.parseTimestamp("2024-05-29T06:00:00Z"));
+        assertEquals(-1, RachioEventHistory.parseTimestamp("yesterday"));
+    }
+
+    private static RachioEventSummary.Event event(String id, long timestamp) {
+        RachioEventSummary.Event event = new RachioEventSummary.Event();
+        event.id = id;
+        event.timestamp = Long.toString(timestamp);
+        return event;
+    }
+}
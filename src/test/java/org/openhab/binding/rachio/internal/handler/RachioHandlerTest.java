@@ -0,0 +1,59 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.rachio.internal.RachioBindingConstants.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.openhab.binding.rachio.internal.api.RachioHttp;
+import org.openhab.binding.rachio.internal.api.RachioWebhookRouter;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.ThingHandlerCallback;
+
+/**
+ * Tests for {@link RachioHandler}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@NonNullByDefault
+public class RachioHandlerTest {
+    private static final ThingUID THING_UID = new ThingUID(BINDING_ID, "controller", "test");
+    private static final String DEVICE_ID = "2a5e7d3c-9f8e-4b6a-8c1d-0e2f4a6b8c9d";
+
+    private @Mock @NonNullByDefault({}) Thing thing;
+    private @Mock @NonNullByDefault({}) RachioHttp rachioHttp;
+    private @Mock @NonNullByDefault({}) RachioWebhookRouter webhookRouter;
+    private @Mock @NonNullByDefault({}) ThingHandlerCallback callback;
+
+    private @NonNullByDefault({}) RachioHandler handler;
+
+    @BeforeEach
+    public void setUp() {
+        when(thing.getUID()).thenReturn(THING_UID);
+        handler = new RachioHandler(thing, rachioHttp, webhookRouter);
+        handler.setCallback(callback);
+    }
+
+    @Test
+    public void stopWateringResetsTheSwitchEveryTime() {
+        ChannelUID stop = new ChannelUID(THING_UID, DEVICE_ID + "_" + CHANNEL_STOP_WATERING);
+
+        handler.handleCommand(stop, OnOffType.ON);
+        verify(callback, times(1)).stateUpdated(stop, OnOffType.OFF);
+
+        // OFF is the state published last now, the second reset must be posted all the same
+        handler.handleCommand(stop, OnOffType.ON);
+        verify(callback, times(2)).stateUpdated(stop, OnOffType.OFF);
+    }
+}
@@ -0,0 +1,123 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.openhab.binding.rachio.internal.RachioBindingConstants.BINDING_ID;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests for {@link RachioOptimisticState}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioOptimisticStateTest {
+    private static final ThingUID THING_UID = new ThingUID(BINDING_ID, "controller", "test");
+    private static final ChannelUID ZONE_A = new ChannelUID(THING_UID, "device_a_enabled");
+    private static final ChannelUID ZONE_B = new ChannelUID(THING_UID, "device_b_enabled");
+    private static final ChannelUID OTHER_DEVICE_ZONE = new ChannelUID(THING_UID, "other_c_enabled");
+    private static final Duration TIMEOUT = Duration.ofMillis(200);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<String> reconciled = new CopyOnWriteArrayList<>();
+    private final RachioOptimisticState state = new RachioOptimisticState(scheduler, reconciled::add, TIMEOUT);
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void contradictingStateIsHeldBack() {
+        state.expect("device", ZONE_A, OnOffType.ON, OnOffType.OFF);
+
+        assertTrue(state.overrides(ZONE_A, OnOffType.OFF));
+        assertTrue(state.overrides(ZONE_A, OnOffType.OFF));
+        assertFalse(state.overrides(ZONE_B, OnOffType.OFF));
+    }
+
+    @Test
+    public void matchingStateConfirmsThePendingOne() {
+        state.expect("device", ZONE_A, OnOffType.ON, OnOffType.OFF);
+
+        assertFalse(state.overrides(ZONE_A, OnOffType.ON));
+        // Confirmed, later polls are published as they come
+        assertFalse(state.overrides(ZONE_A, OnOffType.OFF));
+    }
+
+    @Test
+    public void failedCommandRestoresThePreviousState() {
+        RachioOptimisticState.Pending pending = state.expect("device", ZONE_A, OnOffType.ON, OnOffType.OFF);
+
+        assertEquals(OnOffType.OFF, pending.getPrevious());
+        assertTrue(state.fail(ZONE_A, pending));
+        assertFalse(state.overrides(ZONE_A, OnOffType.OFF));
+    }
+
+    @Test
+    public void laterCommandKeepsTheStateToRestore() {
+        RachioOptimisticState.Pending first = state.expect("device", ZONE_A, OnOffType.ON, OnOffType.OFF);
+        // The second command sees the first one's optimistic state as published
+        RachioOptimisticState.Pending second = state.expect("device", ZONE_A, OnOffType.OFF, OnOffType.ON);
+
+        assertEquals(OnOffType.OFF, second.getPrevious());
+        // The first command no longer owns the channel
+        assertFalse(state.fail(ZONE_A, first));
+        assertTrue(state.overrides(ZONE_A, OnOffType.ON));
+        assertTrue(state.fail(ZONE_A, second));
+    }
+
+    @Test
+    public void webhookReconcilesOnlyItsDevice() {
+        state.expect("device", ZONE_A, OnOffType.ON, OnOffType.OFF);
+        state.expect("device", ZONE_B, OnOffType.ON, OnOffType.OFF);
+        state.expect("other", OTHER_DEVICE_ZONE, OnOffType.ON, OnOffType.OFF);
+
+        assertTrue(state.reconcile("device"));
+        assertFalse(state.reconcile("device"));
+        assertFalse(state.overrides(ZONE_A, OnOffType.OFF));
+        assertFalse(state.overrides(ZONE_B, OnOffType.OFF));
+        assertTrue(state.overrides(OTHER_DEVICE_ZONE, OnOffType.OFF));
+    }
+
+    @Test
+    public void unconfirmedStateTriggersARefreshAfterTheTimeout() throws InterruptedException {
+        state.expect("device", ZONE_A, OnOffType.ON, OnOffType.OFF);
+
+        Thread.sleep(TIMEOUT.toMillis() * 3);
+        assertEquals(List.of("device"), reconciled);
+        assertFalse(state.overrides(ZONE_A, OnOffType.OFF));
+    }
+
+    @Test
+    public void confirmedStateDoesNotTimeOut() throws InterruptedException {
+        state.expect("device", ZONE_A, OnOffType.ON, OnOffType.OFF);
+        state.overrides(ZONE_A, OnOffType.ON);
+        RachioOptimisticState.Pending failed = state.expect("device", ZONE_B, OnOffType.ON, null);
+        state.fail(ZONE_B, failed);
+
+        Thread.sleep(TIMEOUT.toMillis() * 3);
+        assertTrue(reconciled.isEmpty());
+    }
+
+    @Test
+    public void clearDropsPendingStatesAndTimeouts() throws InterruptedException {
+        state.expect("device", ZONE_A, OnOffType.ON, OnOffType.OFF);
+
+        state.clear();
+        assertFalse(state.overrides(ZONE_A, OnOffType.OFF));
+        Thread.sleep(TIMEOUT.toMillis() * 3);
+        assertTrue(reconciled.isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+package org.openhab.binding.rachio.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RachioRefreshCoordinator}
+ *
+ * @author Damion Boyett - Initial contribution
+ */
+@NonNullByDefault
+public class RachioRefreshCoordinatorTest {
+    private static final Duration QUIET = Duration.ofMillis(200);
+    private static final Duration MAX_DELAY = Duration.ofMillis(600);
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final List<String> refreshed = new CopyOnWriteArrayList<>();
+    private final RachioRefreshCoordinator coordinator = new RachioRefreshCoordinator(scheduler, refreshed::add,
+            QUIET, MAX_DELAY);
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void burstResultsInOneRefresh() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            coordinator.request("a");
+            Thread.sleep(10);
+        }
+
+        Thread.sleep(QUIET.toMillis() * 3);
+        assertEquals(List.of("a"), refreshed);
+    }
+
+    @Test
+    public void everyRequestPushesTheRefreshBack() throws InterruptedException {
+        coordinator.request("a");
+        Thread.sleep(QUIET.toMillis() / 2);
+        coordinator.request("a");
+
+        // The first request alone would have refreshed by now
+        Thread.sleep(QUIET.toMillis() * 3 / 4);
+        assertTrue(refreshed.isEmpty());
+        Thread.sleep(QUIET.toMillis());
+        assertEquals(List.of("a"), refreshed);
+    }
+
+    @Test
+    public void refreshIsNotDelayedBeyondTheMaximum() throws InterruptedException {
+        long start = System.nanoTime();
+        // Requests keep coming faster than the quiet period
+        while (refreshed.isEmpty() && System.nanoTime() - start < MAX_DELAY.toNanos() * 3) {
+            coordinator.request("a");
+            Thread.sleep(QUIET.toMillis() / 4);
+        }
+
+        assertFalse(refreshed.isEmpty());
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed < MAX_DELAY.toMillis() + QUIET.toMillis(), "refreshed after " + elapsed + " ms");
+    }
+
+    @Test
+    public void devicesAreRefreshedIndependently() throws InterruptedException {
+        coordinator.request("a");
+        coordinator.request("b");
+        coordinator.request("a");
+
+        Thread.sleep(QUIET.toMillis() * 3);
+        assertEquals(2, refreshed.size());
+        assertTrue(refreshed.containsAll(List.of("a", "b")));
+    }
+
+    @Test
+    public void cancelledRefreshDoesNotRun() throws InterruptedException {
+        coordinator.request("a");
+        coordinator.request("b");
+        coordinator.cancel("a");
+
+        Thread.sleep(QUIET.toMillis() * 3);
+        assertEquals(List.of("b"), refreshed);
+    }
+
+    @Test
+    public void cancelAllDropsEveryPendingRefresh() throws InterruptedException {
+        coordinator.request("a");
+        coordinator.request("b");
+        coordinator.cancelAll();
+
+        Thread.sleep(QUIET.toMillis() * 3);
+        assertTrue(refreshed.isEmpty());
+    }
+
+    @Test
+    public void requestDuringARefreshSchedulesAnotherOne() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> slow = new CopyOnWriteArrayList<>();
+        RachioRefreshCoordinator blocking = new RachioRefreshCoordinator(scheduler, id -> {
+            slow.add(id);
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, QUIET, MAX_DELAY);
+
+        blocking.request("a");
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        // Changes made while the refresh runs may not be in its result, so they need a refresh of their own
+        blocking.request("a");
+        release.countDown();
+
+        Thread.sleep(QUIET.toMillis() * 3);
+        assertEquals(List.of("a", "a"), slow);
+    }
+}